@@ -0,0 +1,71 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.TestingAppApplication;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.EmployeeService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+//Boots the application in the perf profile against a private in-memory H2 database, without a web server
+//unless asked
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        return start(WebApplicationType.NONE, database, extraArgs);
+    }
+
+    //Same, with a web server on a random port; read it from WebServerApplicationContext.getWebServer().
+    //SERVLET serves EmployeeController on Tomcat, REACTIVE serves ReactiveEmployeeController on Netty.
+    static ConfigurableApplicationContext startServer(WebApplicationType webApplicationType, String database,
+                                                      String... extraArgs) {
+        return start(webApplicationType, database,
+                Stream.concat(Stream.of("--server.port=0"), Stream.of(extraArgs)).toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String database,
+                                                        String... extraArgs) {
+        String[] args = Stream.concat(Stream.of(
+                "--spring.profiles.active=perf",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"), Stream.of(extraArgs)).toArray(String[]::new);
+        return new SpringApplicationBuilder(TestingAppApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    //Inserts rows with unique names and emails and returns their ids
+    static long[] seed(EmployeeService employeeService, int rows) {
+        long[] ids = new long[rows];
+        for (int from = 0; from < rows; from += SEED_CHUNK) {
+            List<Employee> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows); i++) {
+                chunk.add(employee(i));
+            }
+            List<Employee> saved = employeeService.saveEmployees(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+        return ids;
+    }
+
+    static Employee employee(long i) {
+        return Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("employee" + i + "@bench.dev")
+                .build();
+    }
+}
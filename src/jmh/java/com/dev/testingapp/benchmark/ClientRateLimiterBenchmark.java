@@ -0,0 +1,43 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.service.limit.ClientRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//One rate limit check from 4 threads: all for the same client, the worst case for its compare-and-set, or
+//spread over 10k clients. The budget never runs out, so every call takes the allowing path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private ClientRateLimiter rateLimiter;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EmployeeProperties.RateLimit settings = new EmployeeProperties().getRateLimit();
+        settings.getReads().setCapacity(Integer.MAX_VALUE);
+        settings.getReads().setPerSecond(1e9);
+        rateLimiter = new ClientRateLimiter(settings, System::nanoTime);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "key:client" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)],
+                ClientRateLimiter.Budget.READS, 1).allowed();
+    }
+}
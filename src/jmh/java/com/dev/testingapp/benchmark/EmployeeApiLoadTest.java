@@ -0,0 +1,161 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.seed.EmployeeSeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//Throughput and latency distribution of a mix of /api/employees requests, at each connection count given as
+//an argument, against the application on a random port in the perf profile, seeded by EmployeeSeeder.
+//Reads and updates go to the first half of the seeded rows; deletes remove rows from the end of the table,
+//so at most half the rows can be deleted before deletes answer 404 and count as errors.
+//Options: -Dload.rows, -Dload.warmup and -Dload.duration (seconds), -Dload.output (JSON results file; the
+//latency distribution of each run is written beside it as employee-api-load-<connections>.hgrm),
+//-Dload.mix (operation=weight list, see DEFAULT_MIX), -Dload.server-args (application arguments)
+public final class EmployeeApiLoadTest {
+
+    private static final int[] DEFAULT_CONNECTIONS = {16, 64, 256};
+    private static final String DEFAULT_MIX =
+            "get=40,list=5,fields=5,ids=5,by-name=5,search=10,create=8,batch=1,update=5,patch=10,delete=6,export=0";
+    private static final int IDS_PER_LOOKUP = 10;
+    private static final int ROWS_PER_BATCH = 10;
+
+    private final String baseUrl;
+    private final long[] ids;
+    private final int readable;
+    private final AtomicInteger nextDelete;
+    private final AtomicLong created = new AtomicLong();
+
+    private EmployeeApiLoadTest(String baseUrl, long[] ids) {
+        this.baseUrl = baseUrl;
+        this.ids = ids;
+        this.readable = Math.max(1, ids.length / 2);
+        this.nextDelete = new AtomicInteger(ids.length - 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] connections = args.length == 0
+                ? DEFAULT_CONNECTIONS
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        int rows = Integer.getInteger("load.rows", 10_000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 20));
+        File output = new File(System.getProperty("load.output", "target/employee-api-load.json"));
+        String[] serverArgs = System.getProperty("load.server-args", "").trim().split("\\s+");
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = BenchmarkContext.startServer(WebApplicationType.SERVLET,
+                "api-load", Arrays.stream(serverArgs).filter(arg -> !arg.isEmpty()).toArray(String[]::new))) {
+            long[] ids = context.getBean(EmployeeSeeder.class).seed(0, rows);
+            EmployeeApiLoadTest load = new EmployeeApiLoadTest("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/employees", ids);
+            List<LoadGenerator.Operation> mix = load.mix(System.getProperty("load.mix", DEFAULT_MIX));
+            System.out.println("Mix: " + mix.stream().map(operation -> operation.name() + "=" + operation.weight())
+                    .collect(Collectors.joining(",")));
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            for (int count : connections) {
+                LoadGenerator.Result result = LoadGenerator.run("mix", client, mix, count, warmup, duration);
+                System.out.println(result);
+                result.operations().forEach(operation -> System.out.println("  " + operation));
+                result.printDistribution(System.out);
+                result.writeDistribution(new File(output.getAbsoluteFile().getParentFile(),
+                        "employee-api-load-" + count + ".hgrm"));
+                results.add(result);
+            }
+        }
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, results);
+        System.out.println("Results written to " + output);
+    }
+
+    private List<LoadGenerator.Operation> mix(String weights) {
+        Map<String, Supplier<HttpRequest>> operations = new LinkedHashMap<>();
+        operations.put("get", () -> get("/" + readId()));
+        operations.put("list", () -> get("?limit=50"));
+        operations.put("fields", () -> get("?fields=id,email&limit=50"));
+        operations.put("ids", () -> get("?ids=" + IntStream.range(0, IDS_PER_LOOKUP)
+                .mapToObj(i -> String.valueOf(readId())).collect(Collectors.joining(","))));
+        operations.put("by-name", () -> {
+            Employee employee = EmployeeSeeder.employee(randomRow());
+            return get("/by-name?firstName=" + employee.getFirstName() + "&lastName=" + employee.getLastName());
+        });
+        operations.put("search", () -> {
+            Employee employee = EmployeeSeeder.employee(randomRow());
+            String name = ThreadLocalRandom.current().nextBoolean() ? employee.getFirstName() : employee.getLastName();
+            return get("/search?prefix=" + name.substring(0, Math.min(3, name.length())));
+        });
+        operations.put("create", () -> send("POST", "", newEmployee()));
+        operations.put("batch", () -> send("POST", "/batch", IntStream.range(0, ROWS_PER_BATCH)
+                .mapToObj(i -> newEmployee()).collect(Collectors.joining(",", "[", "]"))));
+        operations.put("update", () -> {
+            int row = randomRow();
+            Employee employee = EmployeeSeeder.employee(row);
+            return send("PUT", "/" + ids[row], "{\"firstName\":\"" + employee.getFirstName() + created.incrementAndGet()
+                    + "\",\"lastName\":\"" + employee.getLastName() + "\",\"email\":\"" + employee.getEmail() + "\"}");
+        });
+        operations.put("patch", () -> send("PATCH", "/" + readId(),
+                "{\"lastName\":\"Patched" + created.incrementAndGet() + "\"}"));
+        operations.put("delete", () -> HttpRequest.newBuilder(URI.create(baseUrl + "/"
+                + ids[Math.max(readable, nextDelete.getAndDecrement())])).DELETE().build());
+        operations.put("export", () -> get("/export"));
+
+        List<LoadGenerator.Operation> mix = new ArrayList<>();
+        for (String entry : weights.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=", 2);
+            Supplier<HttpRequest> request = operations.get(nameAndWeight[0]);
+            if (request == null || nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight with an operation among "
+                        + operations.keySet() + ", got " + entry);
+            }
+            mix.add(new LoadGenerator.Operation(nameAndWeight[0], Integer.parseInt(nameAndWeight[1]), request));
+        }
+        return mix;
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(readable);
+    }
+
+    private long readId() {
+        return ids[randomRow()];
+    }
+
+    private String newEmployee() {
+        long n = created.incrementAndGet();
+        return "{\"firstName\":\"Load" + n + "\",\"lastName\":\"Test\",\"email\":\"load" + n + "@load.dev\"}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
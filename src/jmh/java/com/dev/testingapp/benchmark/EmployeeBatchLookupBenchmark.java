@@ -0,0 +1,74 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//A page render's 50 lookups: one getEmployeesByIds call against 50 getEmployeeById calls, and concurrent
+//single lookups with and without coalescing. The cache is off so every lookup reaches the database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+public class EmployeeBatchLookupBenchmark {
+
+    private static final int PAGE_IDS = 50;
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("batch-lookup",
+                "--spring.cache.type=none",
+                "--employees.coalescing.enabled=" + coalescing);
+        employeeService = context.getBean(EmployeeService.class);
+        ids = BenchmarkContext.seed(employeeService, 100_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_IDS)
+    public void pageOfSingleLookups(Blackhole blackhole) {
+        for (int i = 0; i < PAGE_IDS; i++) {
+            blackhole.consume(employeeService.getEmployeeById(randomId()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_IDS)
+    public List<Employee> pageOfIds() {
+        List<Long> page = new ArrayList<>(PAGE_IDS);
+        for (int i = 0; i < PAGE_IDS; i++) {
+            page.add(randomId());
+        }
+        return employeeService.getEmployeesByIds(page);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
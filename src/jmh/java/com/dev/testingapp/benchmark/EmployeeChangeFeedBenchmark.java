@@ -0,0 +1,88 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//What it costs a consumer to notice a change over HTTP. poll re-reads the whole table as one page, the
+//way the polling consumers do. patch writes one employee, and patchAndReceive writes it and waits until the
+//event arrives on an open GET /api/employees/changes stream; their difference is the cost of the push.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeChangeFeedBenchmark {
+
+    @Param({"500"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest poll;
+    private URI employee;
+    private HttpResponse<Stream<String>> stream;
+    private Iterator<String> lines;
+    private long patches;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        context = BenchmarkContext.startServer(WebApplicationType.SERVLET, "changefeed",
+                "--spring.cache.type=none");
+        long[] ids = BenchmarkContext.seed(context.getBean(EmployeeService.class), tableSize);
+        String baseUrl = "http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/employees";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        poll = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=" + tableSize)).build();
+        employee = URI.create(baseUrl + "/" + ids[0]);
+        stream = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/changes")).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        lines = stream.body().iterator();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stream.body().close();
+        context.close();
+    }
+
+    private int sendPatch() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(employee)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"firstName\":\"First" + patches++ + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public byte[] poll() throws IOException, InterruptedException {
+        return client.send(poll, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    //the open stream is left unread here, as by a stalled consumer, which must not slow the writes down
+    @Benchmark
+    public int patch() throws IOException, InterruptedException {
+        return sendPatch();
+    }
+
+    @Benchmark
+    public String patchAndReceive() throws IOException, InterruptedException {
+        sendPatch();
+        String line = lines.next();
+        while (!line.startsWith("data:")) {
+            line = lines.next();
+        }
+        return line;
+    }
+}
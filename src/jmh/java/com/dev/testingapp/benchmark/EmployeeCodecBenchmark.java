@@ -0,0 +1,79 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+//Jackson cost of the List<Employee> payloads the list endpoints return, in each format the API negotiates.
+//serializeGzip adds the compression the server applies to large bodies; payload sizes are printed at setup.
+//The mappers are built like the application's: Jackson2ObjectMapperBuilder, as Boot and Spring MVC build them,
+//so the registered modules and the features they turn off are the same as in the served responses.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeCodecBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Employee> employees;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = objectMapper.writerFor(new TypeReference<List<Employee>>() { });
+        reader = objectMapper.readerFor(new TypeReference<List<Employee>>() { });
+        employees = new ArrayList<>();
+        for (long i = 0; i < listSize; i++) {
+            Employee employee = BenchmarkContext.employee(i);
+            employee.setId(i + 1);
+            employee.setVersion(0L);
+            employees.add(employee);
+        }
+        payload = writer.writeValueAsBytes(employees);
+        System.out.println(format + " payload of " + listSize + " employees: " + payload.length
+                + " bytes, " + serializeGzip().length + " gzipped");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, employees);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<Employee> deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,82 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+//Polling GET /api/employees/{id} and a 50 row page over HTTP, unconditionally (200 with the body) and with
+//the ETag of the previous response (304 without one). The cache is off so every request reaches the database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeConditionalGetBenchmark {
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest employee;
+    private HttpRequest employeeIfNoneMatch;
+    private HttpRequest page;
+    private HttpRequest pageIfNoneMatch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        context = BenchmarkContext.startServer(WebApplicationType.SERVLET, "conditional",
+                "--spring.cache.type=none");
+        long[] ids = BenchmarkContext.seed(context.getBean(EmployeeService.class), tableSize);
+        String baseUrl = "http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/employees";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        employee = HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids[ids.length / 2])).build();
+        employeeIfNoneMatch = HttpRequest.newBuilder(employee.uri())
+                .header("If-None-Match", etag(employee))
+                .build();
+        page = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=50")).build();
+        pageIfNoneMatch = HttpRequest.newBuilder(page.uri())
+                .header("If-None-Match", etag(page))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String etag(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElseThrow();
+    }
+
+    @Benchmark
+    public byte[] getEmployee() throws IOException, InterruptedException {
+        return client.send(employee, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] getEmployeeNotModified() throws IOException, InterruptedException {
+        return client.send(employeeIfNoneMatch, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] getPage() throws IOException, InterruptedException {
+        return client.send(page, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] getPageNotModified() throws IOException, InterruptedException {
+        return client.send(pageIfNoneMatch, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
@@ -0,0 +1,67 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.service.EmployeeImportService;
+import com.dev.testingapp.service.importer.ImportFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+//Wall time of one bulk import of a generated CSV file into an empty table, at several file sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class EmployeeImportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeImportService importService;
+    private byte[] csv;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("import", "--employees.bulk-import.chunk-size=" + chunkSize);
+        importService = context.getBean(EmployeeImportService.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 40);
+        out.writeBytes("firstName,lastName,email\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < rows; i++) {
+            out.writeBytes(("First" + i + ",Last" + i + ",employee" + i + "@import.dev\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        csv = out.toByteArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        //every iteration imports the same file into an empty table
+        context.getBean(JdbcTemplate.class).execute("TRUNCATE TABLE employees");
+        run++;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportReport importCsv() {
+        ImportReport report = importService.importEmployees(new ByteArrayInputStream(csv), ImportFormat.CSV);
+        if (report.imported() != rows) {
+            throw new IllegalStateException("Run " + run + " imported " + report.imported() + " of " + rows);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,78 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//The first/last name lookups of EmployeeRepository, single and batched
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeRepositoryBenchmark {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 50);
+
+    @Param({"1000", "100000"})
+    public int tableSize;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("repository");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        BenchmarkContext.seed(context.getBean(EmployeeService.class), tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> findByName() {
+        int i = ThreadLocalRandom.current().nextInt(tableSize);
+        return employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+                "First" + i, "Last" + i, 0L, FIRST_PAGE);
+    }
+
+    //Resolving a batch of names: one query per name against one query for the whole batch
+    @Benchmark
+    public List<Employee> findByNameOneQueryPerName() {
+        List<Employee> found = new ArrayList<>();
+        for (EmployeeName name : names()) {
+            found.addAll(employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+                    name.firstName(), name.lastName(), 0L, FIRST_PAGE));
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<Employee> findByNameIn() {
+        return employeeRepository.findByNameIn(names(), 0L, batchSize);
+    }
+
+    private List<EmployeeName> names() {
+        List<EmployeeName> names = new ArrayList<>(batchSize);
+        for (int n = 0; n < batchSize; n++) {
+            int i = ThreadLocalRandom.current().nextInt(tableSize);
+            names.add(new EmployeeName("First" + i, "Last" + i));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,91 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.controller.CachedEmployeeHttpMessageConverter;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Writing one employee response body the way Spring MVC does: with the Jackson converter, and from
+//EmployeeResponseCache with bodies on the heap and off it. Every employee is cached after the first pass.
+//Run with -prof gc to compare allocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeResponseCacheBenchmark {
+
+    @Param({"jackson", "cached", "cachedOffHeap"})
+    public String mode;
+
+    @Param({"1000"})
+    public int employeeCount;
+
+    private HttpMessageConverter<Object> converter;
+    private Employee[] employees;
+    private Body body;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        if (mode.equals("jackson")) {
+            converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) new MappingJackson2HttpMessageConverter(objectMapper);
+        } else {
+            EmployeeProperties properties = new EmployeeProperties();
+            properties.getResponseCache().setOffHeap(mode.equals("cachedOffHeap"));
+            converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) new CachedEmployeeHttpMessageConverter(
+                    new EmployeeResponseCache(properties), Map.of(MediaType.APPLICATION_JSON, objectMapper));
+        }
+        employees = new Employee[employeeCount];
+        for (int i = 0; i < employeeCount; i++) {
+            employees[i] = BenchmarkContext.employee(i);
+            employees[i].setId(i + 1L);
+            employees[i].setVersion(0L);
+        }
+        body = new Body();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        body.reset();
+        converter.write(employees[next++ % employees.length], MediaType.APPLICATION_JSON, body);
+        return body.bytes.size();
+    }
+
+    //a response whose buffer and headers are reused, like a pooled servlet response
+    private static final class Body implements HttpOutputMessage {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            bytes.reset();
+            headers.clear();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return bytes;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
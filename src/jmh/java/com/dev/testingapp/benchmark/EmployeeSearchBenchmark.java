@@ -0,0 +1,55 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Type-ahead search of the in-memory index for prefixes of one to four characters, top 10
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeSearchBenchmark {
+
+    private static final String[] COLUMN_PREFIXES = {"first", "last", "employee"};
+
+    @Param({"100000", "1000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("search");
+        employeeService = context.getBean(EmployeeService.class);
+        BenchmarkContext.seed(employeeService, tableSize);
+        //as after a restart: everything in the sorted arrays, nothing in the added set
+        context.getBean(EmployeeSearchIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeSuggestion> searchPrefix() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = COLUMN_PREFIXES[random.nextInt(COLUMN_PREFIXES.length)] + random.nextInt(tableSize);
+        return employeeService.searchEmployees(name.substring(0, Math.min(name.length(), 1 + random.nextInt(4))), 10);
+    }
+
+    @Benchmark
+    public List<EmployeeSuggestion> searchFullName() {
+        int i = ThreadLocalRandom.current().nextInt(tableSize);
+        return employeeService.searchEmployees("first" + i + " last", 10);
+    }
+}
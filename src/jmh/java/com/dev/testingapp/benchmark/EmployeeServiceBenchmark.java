@@ -0,0 +1,66 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Write and list paths of EmployeeService at several table sizes. Run with -prof gc to compare the
+//allocation of a full page against a page of two columns.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private AtomicLong nextEmployee;
+    private final Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("service");
+        employeeService = context.getBean(EmployeeService.class);
+        BenchmarkContext.seed(employeeService, tableSize);
+        nextEmployee = new AtomicLong(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(BenchmarkContext.employee(nextEmployee.getAndIncrement()));
+    }
+
+    @Benchmark
+    public List<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public CursorPage<Employee> getEmployeePage() {
+        return employeeService.getEmployeePage(null, 50);
+    }
+
+    @Benchmark
+    public CursorPage<EmployeeView> getEmployeeViewPage() {
+        return employeeService.getEmployeeViewPage(null, 50, fields);
+    }
+}
@@ -0,0 +1,83 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.service.writebehind.WriteBehindEmployeeWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//A burst of POST /api/employees from 8 clients over HTTP, each with a new email: answered after the insert
+//(sync), or queued and answered 202 (async). After each iteration the async queue is drained and the time
+//that took is printed, so the rows are written either way; a 429 fails the benchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class EmployeeWriteBehindBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private WriteBehindEmployeeWriter writer;
+    private HttpClient client;
+    private URI uri;
+    private final AtomicLong emails = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.startServer(WebApplicationType.SERVLET, "writebehind",
+                "--employees.write-behind.enabled=true",
+                "--employees.write-behind.queue-capacity=1000000",
+                "--employees.lookup-filter.enabled=true");
+        writer = context.getBean(WriteBehindEmployeeWriter.class);
+        uri = URI.create("http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/employees");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() throws InterruptedException {
+        long start = System.nanoTime();
+        int queued = writer.queued();
+        while (writer.queued() > 0) {
+            Thread.sleep(1);
+        }
+        if (queued > 0) {
+            System.out.printf("%n%d queued rows drained in %d ms%n", queued,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int create() throws IOException, InterruptedException {
+        long i = emails.incrementAndGet();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"First" + i + "\",\"lastName\":\"Last" + i
+                        + "\",\"email\":\"employee" + i + "@bench.dev\"}"));
+        if (mode.equals("async")) {
+            request.header("Prefer", "respond-async");
+        }
+        int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201 && status != 202) {
+            throw new IllegalStateException("POST answered " + status);
+        }
+        return status;
+    }
+}
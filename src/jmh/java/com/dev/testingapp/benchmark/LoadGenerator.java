@@ -0,0 +1,162 @@
+package com.dev.testingapp.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//Closed-loop HTTP load: every connection sends its next request as soon as the previous response arrives,
+//so the number of connections is the number of requests in flight. Each request is drawn from a weighted
+//mix of operations; latencies are recorded per operation and merged for the totals.
+final class LoadGenerator {
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private LoadGenerator() {
+    }
+
+    //One kind of request, sent in proportion to its weight among the mix
+    record Operation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    //errors are failed exchanges and 4xx or 5xx answers; requests, throughput and latencies count the rest.
+    //operations breaks a mix down by operation, and is empty for a single one.
+    record Result(String label, int connections, long requests, long errors, double throughput,
+                  double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis,
+                  List<Result> operations, @JsonIgnore Histogram latencies) {
+
+        private static Result of(String label, int connections, long errors, Duration duration,
+                                 Histogram latencies, List<Result> operations) {
+            return new Result(label, connections, latencies.getTotalCount(), errors,
+                    latencies.getTotalCount() / (duration.toNanos() / 1e9),
+                    latencies.getValueAtPercentile(50) / 1e6,
+                    latencies.getValueAtPercentile(90) / 1e6,
+                    latencies.getValueAtPercentile(99) / 1e6,
+                    latencies.getValueAtPercentile(99.9) / 1e6,
+                    latencies.getMaxValue() / 1e6,
+                    operations, latencies);
+        }
+
+        //HdrHistogram's percentile distribution of the latencies in milliseconds, the .hgrm format its plotter reads
+        void printDistribution(PrintStream out) {
+            latencies.outputPercentileDistribution(out, 1e6);
+        }
+
+        void writeDistribution(File file) throws IOException {
+            try (PrintStream out = new PrintStream(file, StandardCharsets.UTF_8)) {
+                printDistribution(out);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %6d conns %10.0f req/s  p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms  errors %d",
+                    label, connections, throughput, p50Millis, p99Millis, p999Millis, maxMillis, errors);
+        }
+    }
+
+    static Result run(String label, HttpClient client, Supplier<HttpRequest> requests, int connections,
+                      Duration warmup, Duration duration) throws InterruptedException {
+        return run(label, client, List.of(new Operation(label, 1, requests)), connections, warmup, duration);
+    }
+
+    static Result run(String label, HttpClient client, List<Operation> mix, int connections,
+                      Duration warmup, Duration duration) throws InterruptedException {
+        Recorder[] recorders = mix.stream().filter(operation -> operation.weight() > 0)
+                .map(Recorder::new).toArray(Recorder[]::new);
+        if (recorders.length == 0) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        int[] cumulativeWeights = new int[recorders.length];
+        int totalWeight = 0;
+        for (int i = 0; i < recorders.length; i++) {
+            totalWeight += recorders[i].operation.weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        Mix picker = new Mix(recorders, cumulativeWeights, totalWeight);
+
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long recordUntil = recordFrom + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            new Connection(client, picker, recordFrom, recordUntil, finished).next();
+        }
+        finished.await();
+
+        Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+        long errors = 0;
+        List<Result> operations = new ArrayList<>();
+        for (Recorder recorder : recorders) {
+            total.add(recorder.latencies);
+            errors += recorder.errors.sum();
+            operations.add(Result.of(recorder.operation.name(), connections, recorder.errors.sum(), duration,
+                    recorder.latencies, List.of()));
+        }
+        return Result.of(label, connections, errors, duration, total,
+                operations.size() > 1 ? operations : List.of());
+    }
+
+    private static final class Recorder {
+
+        private final Operation operation;
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private Recorder(Operation operation) {
+            this.operation = operation;
+        }
+    }
+
+    private record Mix(Recorder[] recorders, int[] cumulativeWeights, int totalWeight) {
+
+        Recorder pick() {
+            int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+            int i = 0;
+            while (cumulativeWeights[i] <= draw) {
+                i++;
+            }
+            return recorders[i];
+        }
+    }
+
+    private record Connection(HttpClient client, Mix mix, long recordFrom, long recordUntil,
+                              CountDownLatch finished) {
+
+        void next() {
+            long start = System.nanoTime();
+            if (start - recordUntil >= 0) {
+                finished.countDown();
+                return;
+            }
+            Recorder recorder = mix.pick();
+            client.sendAsync(recorder.operation.request().get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long end = System.nanoTime();
+                        // only responses that both start and finish inside the measurement window count
+                        if (start - recordFrom >= 0 && end - recordUntil < 0) {
+                            if (failure != null || response.statusCode() >= 400) {
+                                recorder.errors.increment();
+                            } else {
+                                recorder.latencies.recordValue(Math.min(end - start, HIGHEST_LATENCY));
+                            }
+                        }
+                        next();
+                    });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.dev.testingapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//Time from process start to the first successful GET /api/employees/{id}, and resident memory at that moment,
+//of each startup variant given as an argument (all available ones by default). Each run starts a new process
+//in the perf profile with one seeded employee; the fast-startup and native builds must exist first:
+//  jvm      thin jar of the fast-startup build, without the AOT initializers or the archive
+//  cds      with the AppCDS archive of the training run
+//  aot      with the AOT-generated bean definitions (-Dspring.aot.enabled=true)
+//  aot-cds  both, which is how the fast-startup build is meant to run
+//  native   the GraalVM executable of the native profile, when target/TestingApp exists
+//Resident memory is VmRSS from /proc, so Linux only.
+//Options: -Dstartup.runs (per variant, the median is reported), -Dstartup.output (JSON results file; each
+//variant's last output goes beside it as startup-<variant>.log), -Dstartup.app-args (application arguments)
+public final class StartupBenchmark {
+
+    private static final String JAR = "target/TestingApp-0.0.1-SNAPSHOT.jar";
+    private static final String ARCHIVE = "target/TestingApp-0.0.1-SNAPSHOT.jsa";
+    private static final String EXECUTABLE = "target/TestingApp";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    record Result(String variant, int runs, double firstResponseMillis, double minMillis, double maxMillis,
+                  double rssMegabytes) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<String>> variants = variants();
+        List<String> names = args.length == 0 ? new ArrayList<>(variants.keySet()) : Arrays.asList(args);
+        int runs = Integer.getInteger("startup.runs", 5);
+        File output = new File(System.getProperty("startup.output", "target/startup.json"));
+        String[] appArgs = System.getProperty("startup.app-args", "").trim().split("\\s+");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        List<Result> results = new ArrayList<>();
+        for (String name : names) {
+            List<String> command = variants.get(name);
+            if (command == null) {
+                throw new IllegalArgumentException("Unknown or unbuilt variant " + name + ", expected one of "
+                        + variants.keySet());
+            }
+            File log = new File(output.getAbsoluteFile().getParentFile(), "startup-" + name + ".log");
+            double[] millis = new double[runs];
+            double[] rss = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] sample = start(client, command, appArgs, log);
+                millis[run] = sample[0] / 1e6;
+                rss[run] = sample[1] / 1024.0;
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rss);
+            Result result = new Result(name, runs, millis[runs / 2], millis[0], millis[runs - 1], rss[runs / 2]);
+            System.out.println(result);
+            results.add(result);
+        }
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, results);
+        System.out.println("Results written to " + output);
+    }
+
+    private static Map<String, List<String>> variants() {
+        if (!new File(JAR).isFile() || !new File(ARCHIVE).isFile()) {
+            throw new IllegalStateException(JAR + " and " + ARCHIVE
+                    + " are missing, build them first with ./mvnw -Pperf,fast-startup package -DskipTests");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jvm", List.of(java, "-jar", JAR));
+        variants.put("cds", List.of(java, "-XX:SharedArchiveFile=" + ARCHIVE, "-Xlog:cds=off", "-jar", JAR));
+        variants.put("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", JAR));
+        variants.put("aot-cds", List.of(java, "-XX:SharedArchiveFile=" + ARCHIVE, "-Xlog:cds=off",
+                "-Dspring.aot.enabled=true", "-jar", JAR));
+        if (new File(EXECUTABLE).canExecute()) {
+            variants.put("native", List.of(EXECUTABLE));
+        }
+        return variants;
+    }
+
+    //Returns the nanoseconds to the first 200 and the resident kilobytes then
+    private static long[] start(HttpClient client, List<String> command, String[] appArgs, File log)
+            throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.addAll(List.of("--spring.profiles.active=perf", "--employees.seed.rows=1",
+                "--server.port=" + port, "--spring.main.banner-mode=off"));
+        Stream.of(appArgs).filter(arg -> !arg.isEmpty()).forEach(arguments::add);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - started > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No successful response within " + TIMEOUT + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return new long[]{System.nanoTime() - started, residentKilobytes(process.pid())};
+                    }
+                } catch (IOException notListeningYet) {
+                    //retried below
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long residentKilobytes(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.dev.testingapp.benchmark;
+
+import com.dev.testingapp.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Throughput and p99 of GET /api/employees/{id} with Tomcat's platform thread pool, with virtual threads and
+//on the reactive stack (Netty event loop and R2DBC), at each connection count given as an argument.
+//The cache is off so every request does a database round trip. Unless -Djdk.virtualThreadScheduler.parallelism
+//is given, virtual threads get a carrier per pooled connection (10) on top of one per core, as in the README.
+//Client and server share this JVM, so the open file limit must exceed twice the largest connection count.
+//Options: -Dload.rows, -Dload.warmup and -Dload.duration (seconds), -Dload.output (JSON results file; the
+//latency distribution of each run is written beside it as thread-model-<mode>-<connections>.hgrm)
+public final class ThreadModelLoadTest {
+
+    private static final int[] DEFAULT_CONNECTIONS = {1000, 2500, 5000, 10000};
+
+    private ThreadModelLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] connections = args.length == 0
+                ? DEFAULT_CONNECTIONS
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        int rows = Integer.getInteger("load.rows", 10_000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 20));
+        int maxConnections = Arrays.stream(connections).max().orElse(0);
+        if (System.getProperty("jdk.virtualThreadScheduler.parallelism") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.parallelism",
+                    String.valueOf(Runtime.getRuntime().availableProcessors() + 10));
+        }
+        File output = new File(System.getProperty("load.output", "target/thread-model-load.json"));
+
+        List<String> modes = new ArrayList<>(List.of("platform", "reactive"));
+        if (Runtime.version().feature() >= 21) {
+            modes.add(1, "virtual");
+        } else {
+            System.out.println("Java " + Runtime.version() + " has no virtual threads, skipping that mode");
+        }
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            WebApplicationType webApplicationType = mode.equals("reactive")
+                    ? WebApplicationType.REACTIVE
+                    : WebApplicationType.SERVLET;
+            try (ConfigurableApplicationContext context = BenchmarkContext.startServer(
+                    webApplicationType, "load-" + mode,
+                    "--employees.virtual-threads.enabled=" + mode.equals("virtual"),
+                    "--spring.cache.type=none",
+                    "--server.tomcat.max-connections=" + (maxConnections + 100),
+                    "--server.tomcat.accept-count=" + maxConnections)) {
+                long[] ids = BenchmarkContext.seed(context.getBean(EmployeeService.class), rows);
+                String baseUrl = "http://localhost:"
+                        + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/employees/";
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+                for (int count : connections) {
+                    LoadGenerator.Result result = LoadGenerator.run(mode, client,
+                            () -> HttpRequest.newBuilder(
+                                    URI.create(baseUrl + ids[ThreadLocalRandom.current().nextInt(ids.length)])).build(),
+                            count, warmup, duration);
+                    System.out.println(result);
+                    result.writeDistribution(new File(output.getAbsoluteFile().getParentFile(),
+                            "thread-model-" + mode + "-" + count + ".hgrm"));
+                    results.add(result);
+                }
+            }
+        }
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, results);
+        System.out.println("Results written to " + output);
+    }
+}
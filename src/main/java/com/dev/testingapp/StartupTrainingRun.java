@@ -0,0 +1,42 @@
+package com.dev.testingapp;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+//Training run of the fast-startup build: starts the application, sends it a few read requests so the classes
+//behind them are loaded too, then exits. Run with -XX:ArchiveClassesAtExit, the JVM dumps every class loaded
+//so far into an AppCDS archive that later starts map instead of loading and verifying them again.
+public final class StartupTrainingRun {
+
+    private static final List<String> PATHS = List.of(
+            "/api/employees/1",
+            "/api/employees?limit=10",
+            "/api/employees?ids=1,2",
+            "/api/employees/search?prefix=a");
+
+    private StartupTrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(TestingAppApplication.class);
+        //the AOT-generated initializer is looked up by the main application class
+        application.setMainApplicationClass(TestingAppApplication.class);
+        ConfigurableApplicationContext context = application.run(args);
+
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : PATHS) {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            System.out.println("Training run: GET " + path + " " + response.statusCode());
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,56 @@
+package com.dev.testingapp.config;
+
+import com.dev.testingapp.controller.ConcurrencyLimitFilter;
+import com.dev.testingapp.service.limit.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//Puts ConcurrencyLimitFilter in front of the servlet employee API only; actuator and error pages stay
+//reachable when the limits are full. The reactive variant is not limited.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "employees.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(EmployeeProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        EmployeeProperties.ConcurrencyLimit settings = properties.getConcurrencyLimit();
+        AdaptiveConcurrencyLimit readLimit = limit(settings.getRead(), settings.getTolerance(), "read", meterRegistry);
+        AdaptiveConcurrencyLimit writeLimit = limit(settings.getWrite(), settings.getTolerance(), "write", meterRegistry);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimit, writeLimit,
+                rejected("read", meterRegistry), rejected("write", meterRegistry), settings.getRetryAfter());
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimit limit(EmployeeProperties.ConcurrencyLimit.Limit settings, double tolerance,
+                                                  String requests, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                settings.getInitial(), settings.getMin(), settings.getMax(), tolerance);
+        Gauge.builder("employees.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests admitted at once before more are answered 503")
+                .tag("requests", requests)
+                .register(meterRegistry);
+        Gauge.builder("employees.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests being served")
+                .tag("requests", requests)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private static Counter rejected(String requests, MeterRegistry meterRegistry) {
+        return Counter.builder("employees.concurrency.rejected")
+                .description("Requests answered 503 because the concurrency limit was reached")
+                .tag("requests", requests)
+                .register(meterRegistry);
+    }
+}
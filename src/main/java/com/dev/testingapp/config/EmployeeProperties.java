@@ -0,0 +1,203 @@
+package com.dev.testingapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "employees")
+public class EmployeeProperties {
+
+    private Page page = new Page();
+    private Batch batch = new Batch();
+    private LookupFilter lookupFilter = new LookupFilter();
+    private VirtualThreads virtualThreads = new VirtualThreads();
+    private BulkImport bulkImport = new BulkImport();
+    private Search search = new Search();
+    private Coalescing coalescing = new Coalescing();
+    private ResponseCache responseCache = new ResponseCache();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Changes changes = new Changes();
+    private Seed seed = new Seed();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class Page {
+        private int defaultSize = 50;
+        private int maxSize = 500;
+    }
+
+    @Data
+    public static class Batch {
+        //rows per flush, also used as hibernate.jdbc.batch_size
+        private int size = 50;
+        //ids or emails per IN list in bulk lookups and deletes
+        private int inListSize = 1000;
+        //distinct ids one GET ?ids= lookup may ask for; a longer list is a 400
+        private int maxLookupIds = 1000;
+        //distinct names one POST /by-name lookup may ask for; a longer list is a 400
+        private int maxLookupNames = 100;
+    }
+
+    @Data
+    public static class LookupFilter {
+        //only safe when every write goes through this instance; rows inserted elsewhere read as 404 until a rebuild
+        private boolean enabled = false;
+        //sizing floor; a rebuild sizes for at least twice the current row count
+        private long expectedInsertions = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class VirtualThreads {
+        //serve requests on virtual threads; needs a Java 21+ runtime
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class BulkImport {
+        //rows parsed, checked and inserted per transaction; bounds the memory an import holds
+        private int chunkSize = 1000;
+        //row errors kept in an import report; later ones are only counted
+        private int maxReportedErrors = 1000;
+        //finished import reports kept for GET /api/employees/import
+        private int retainedReports = 50;
+    }
+
+    @Data
+    public static class Search {
+        //in-memory type-ahead index for GET /api/employees/search; holds every employee's names and email
+        private boolean enabled = true;
+        private int defaultResults = 10;
+        private int maxResults = 50;
+    }
+
+    @Data
+    public static class Coalescing {
+        //merge concurrent getEmployeeById cache misses into batched IN queries
+        private boolean enabled = false;
+        //how long the first lookup of a batch waits for others while more loads are in flight
+        private Duration window = Duration.ofNanos(200_000);
+        //ids per batched query, at most batch.in-list-size
+        private int maxBatchSize = 100;
+    }
+
+    @Data
+    public static class ResponseCache {
+        //serve single employees from encoded bodies keyed by id and version, skipping Jackson on a hit
+        private boolean enabled = true;
+        //total size of the cached bodies across all content types
+        private DataSize maxSize = DataSize.ofMegabytes(32);
+        //hold the bodies in direct buffers; -XX:MaxDirectMemorySize must leave room for max-size
+        private boolean offHeap = false;
+    }
+
+    @Data
+    public static class WriteBehind {
+        //queue POST /api/employees sent with Prefer: respond-async and insert it in batches; queued rows are
+        //lost if the process dies before they are written
+        private boolean enabled = false;
+        //accepted rows not yet written; a full queue answers 429
+        private int queueCapacity = 10_000;
+        //rows per insert transaction; the writer takes whatever is queued up to this many
+        private int batchSize = 500;
+        //how long shutdown waits for the queue to drain
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+        //statuses kept for GET /api/employees/pending/{id}, each for at most status-retention
+        private int retainedStatuses = 100_000;
+        private Duration statusRetention = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Changes {
+        //committed writes kept for GET /api/employees/changes, rounded up to a power of two; a subscriber
+        //that falls further behind is sent a reset and disconnected
+        private int bufferSize = 65_536;
+        //open change streams; more are answered 503
+        private int maxSubscribers = 1000;
+        //threads writing events to subscribers; a stalled client holds one while its socket is full
+        private int senderThreads = 4;
+        //a subscriber whose write has blocked this long is dropped, and its thread replaced until the write fails
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        //a stream is closed after this long and the client reconnects with Last-Event-ID
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Seed {
+        //synthetic employees the table is filled up to at startup; 0 leaves it alone
+        private int rows = 0;
+        //rows per insert transaction
+        private int chunkSize = 10_000;
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        //answer /api/employees requests beyond an adaptive concurrency limit with 503 instead of queueing them
+        private boolean enabled = false;
+        //reads are GET and HEAD requests and name lookups; everything else is a write
+        private Limit read = new Limit(50, 10, 500);
+        private Limit write = new Limit(20, 5, 200);
+        //the limit shrinks once recent latency exceeds the long-term average this many times
+        private double tolerance = 2.0;
+        //sent as Retry-After with a 503
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        @Data
+        public static class Limit {
+            private int initial;
+            private int min;
+            private int max;
+
+            public Limit() {
+            }
+
+            Limit(int initial, int min, int max) {
+                this.initial = initial;
+                this.min = min;
+                this.max = max;
+            }
+        }
+    }
+
+    @Data
+    public static class RateLimit {
+        //answer /api/employees requests of a client over its budget with 429
+        private boolean enabled = false;
+        //clients are told apart by this header, or by their address without it; behind a proxy set
+        //server.forward-headers-strategy so the address is the client's
+        private String clientHeader = "X-API-Key";
+        //clients tracked at once; the least recently seen are dropped, with a full budget when they return
+        private int maxClients = 100_000;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        //single employees, id lists, name lookups and search
+        private Bucket reads = new Bucket(200, 100);
+        //pages of the whole table (GET /api/employees, with or without fields) and the export
+        private Bucket lists = new Bucket(20, 5);
+        //creates, updates and deletes
+        private Bucket writes = new Bucket(50, 20);
+        //tokens taken by the heavier requests; every other request takes one. Each must fit in its bucket:
+        //bulk and import costs in writes, the export cost in lists
+        private int bulkCost = 10;
+        private int importCost = 50;
+        private int exportCost = 20;
+
+        @Data
+        public static class Bucket {
+            //tokens available at once, refilled at per-second up to capacity
+            private int capacity;
+            private double perSecond;
+
+            public Bucket() {
+            }
+
+            Bucket(int capacity, double perSecond) {
+                this.capacity = capacity;
+                this.perSecond = perSecond;
+            }
+        }
+    }
+}
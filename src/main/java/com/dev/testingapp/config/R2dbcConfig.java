@@ -0,0 +1,25 @@
+package com.dev.testingapp.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+//R2DBC is only set up for the reactive variant, so the servlet application opens no second pool. The
+//auto-configuration is excluded in application.yaml and imported here instead.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(R2dbcAutoConfiguration.class)
+public class R2dbcConfig {
+
+    //The transaction manager stays out of the context so @Transactional keeps resolving to the JPA one,
+    //see spring.autoconfigure.exclude in application.yaml
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,49 @@
+package com.dev.testingapp.config;
+
+import com.dev.testingapp.controller.RateLimitFilter;
+import com.dev.testingapp.service.limit.ClientRateLimiter;
+import com.dev.testingapp.service.limit.ClientRateLimiter.Budget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+//Puts RateLimitFilter in front of the servlet employee API, ahead of the concurrency limit so a client over
+//its budget never takes a slot. The reactive variant is not limited.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "employees.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(EmployeeProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        EmployeeProperties.RateLimit settings = properties.getRateLimit();
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(settings, System::nanoTime);
+        Gauge.builder("employees.ratelimit.clients", rateLimiter, ClientRateLimiter::clients)
+                .description("Clients whose budgets are tracked")
+                .register(meterRegistry);
+        Map<Budget, Counter> rejected = new EnumMap<>(Budget.class);
+        for (Budget budget : Budget.values()) {
+            rejected.put(budget, Counter.builder("employees.ratelimit.rejected")
+                    .description("Requests answered 429 because the client's budget was spent")
+                    .tag("budget", budget.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, settings, rejected));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
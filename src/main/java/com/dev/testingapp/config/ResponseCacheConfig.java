@@ -0,0 +1,33 @@
+package com.dev.testingapp.config;
+
+import com.dev.testingapp.controller.CachedEmployeeHttpMessageConverter;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Boot puts HttpMessageConverter beans ahead of the default converters. JSON is encoded with the application's
+//ObjectMapper and CBOR and Smile with mappers built like Spring MVC's own, so cached bodies are the bytes the
+//Jackson converters would have written.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "employees.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public CachedEmployeeHttpMessageConverter cachedEmployeeHttpMessageConverter(EmployeeResponseCache responseCache,
+                                                                                 ObjectMapper objectMapper) {
+        Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, Jackson2ObjectMapperBuilder.cbor().build());
+        mappers.put(new MediaType("application", "x-jackson-smile"), Jackson2ObjectMapperBuilder.smile().build());
+        return new CachedEmployeeHttpMessageConverter(responseCache, mappers);
+    }
+}
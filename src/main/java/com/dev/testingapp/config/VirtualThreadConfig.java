@@ -0,0 +1,33 @@
+package com.dev.testingapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+//Runs Tomcat request processing on virtual threads. The executor is Tomcat's alone rather than a bean, which
+//would make Boot back off its applicationTaskExecutor, so async MVC work keeps that pool. The project still
+//compiles for Java 17, so the executor is looked up reflectively and startup fails when the mode is enabled
+//on an older runtime.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "employees.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        Executor executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    static Executor newVirtualThreadPerTaskExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("employees.virtual-threads.enabled needs a Java 21+ runtime, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
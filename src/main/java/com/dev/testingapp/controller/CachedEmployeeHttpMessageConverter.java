@@ -0,0 +1,71 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+//Writes a single Employee response from EmployeeResponseCache, running the format's ObjectMapper only on a
+//miss. Registered ahead of the Jackson converters, so it takes part in content negotiation like they do;
+//request bodies are still read by them.
+public class CachedEmployeeHttpMessageConverter extends AbstractHttpMessageConverter<Employee> {
+
+    private final EmployeeResponseCache responseCache;
+    private final Map<MediaType, ObjectMapper> mappers;
+
+    //mappers in order of preference, the first one answers Accept: */*
+    public CachedEmployeeHttpMessageConverter(EmployeeResponseCache responseCache,
+                                              Map<MediaType, ObjectMapper> mappers) {
+        super(mappers.keySet().toArray(MediaType[]::new));
+        this.responseCache = responseCache;
+        this.mappers = mappers;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Employee readInternal(Class<? extends Employee> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Employees are read by the Jackson converters", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Employee employee, HttpOutputMessage outputMessage) throws IOException {
+        MediaType format = format(outputMessage.getHeaders().getContentType());
+        //an unsaved employee has no version to key it by
+        if (employee.getId() != null && employee.getVersion() != null
+                && responseCache.writeTo(employee.getId(), employee.getVersion(), format.toString(),
+                        outputMessage.getBody())) {
+            return;
+        }
+        byte[] body = mappers.get(format).writeValueAsBytes(employee);
+        if (employee.getId() != null && employee.getVersion() != null) {
+            responseCache.put(employee.getId(), employee.getVersion(), format.toString(), body);
+        }
+        outputMessage.getBody().write(body);
+    }
+
+    //the negotiated type may carry parameters such as a charset
+    private MediaType format(MediaType contentType) {
+        for (MediaType format : mappers.keySet()) {
+            if (format.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalStateException("No mapper for " + contentType);
+    }
+}
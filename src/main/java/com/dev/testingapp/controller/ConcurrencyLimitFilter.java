@@ -0,0 +1,88 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.service.limit.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.time.Duration;
+
+//Admits a request only while its limit has room, and answers the rest 503 with Retry-After right away, so
+//a slow database turns into fast rejections rather than requests queued in Tomcat and the connection pool
+//until they all time out. Reads and writes have limits of their own, so a storm of writes cannot take the
+//slots of getEmployeeById. A request that goes async (the export, the change stream) gives its slot back when
+//this dispatch returns, since its duration is not a latency. A 5xx the application answers on purpose, such
+//as the 503 of search before its index is built, says nothing about the database and leaves the limit as is.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit readLimit, AdaptiveConcurrencyLimit writeLimit,
+                                  Counter readsRejected, Counter writesRejected, Duration retryAfter) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.readsRejected = readsRejected;
+        this.writesRejected = writesRejected;
+        this.retryAfter = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            (read ? readsRejected : writesRejected).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many concurrent requests, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            boolean serverError = response.getStatus() >= 500;
+            if (!completed || serverError && !isDeliberate(request)) {
+                limit.onFailure();
+            } else if (serverError || request.isAsyncStarted()) {
+                limit.onIgnore();
+            } else {
+                limit.onSuccess(System.nanoTime() - start);
+            }
+        }
+    }
+
+    //thrown to answer with its status, like SearchUnavailableException, rather than failing
+    private static boolean isDeliberate(HttpServletRequest request) {
+        Object exception = request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        return exception instanceof ResponseStatusException
+                || exception != null && AnnotatedElementUtils.hasAnnotation(exception.getClass(), ResponseStatus.class);
+    }
+
+    //POST /by-name only looks employees up
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD")
+                || method.equals("POST") && request.getRequestURI().endsWith("/by-name");
+    }
+}
@@ -0,0 +1,48 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.dto.EmployeeChange;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+//One GET /api/employees/changes stream. Each change is an event named created, updated or deleted whose id
+//is the sequence, so a reconnecting EventSource resumes with Last-Event-ID. A client that fell too far
+//behind gets a reset event carrying the latest sequence as its id, and the stream ends: it re-reads the
+//employees and reconnects from there.
+final class EmployeeChangeEmitter extends SseEmitter implements EmployeeChangeFeed.Sink {
+
+    private static final long RECONNECT_MILLIS = 1000;
+
+    EmployeeChangeEmitter(long timeoutMillis) {
+        super(timeoutMillis);
+    }
+
+    void subscribe(EmployeeChangeFeed changeFeed, Long after) throws IOException {
+        //the response is only committed by a first write, so without it a quiet feed would leave the client
+        //waiting for the headers
+        send(event().reconnectTime(RECONNECT_MILLIS));
+        EmployeeChangeFeed.Subscription subscription = changeFeed.subscribe(after, this);
+        onCompletion(subscription::cancel);
+        onTimeout(subscription::cancel);
+        onError(e -> subscription.cancel());
+    }
+
+    @Override
+    public void send(EmployeeChange change) throws IOException {
+        send(event()
+                .id(Long.toString(change.sequence()))
+                .name(change.type().name().toLowerCase(Locale.ROOT))
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void lost(long latest) throws IOException {
+        send(event()
+                .id(Long.toString(latest))
+                .name("reset")
+                .data(Long.toString(latest)));
+    }
+}
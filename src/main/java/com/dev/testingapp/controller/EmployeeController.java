@@ -1,60 +1,353 @@
 package com.dev.testingapp.controller;
 
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.DeleteResult;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.dto.PendingEmployee;
+import com.dev.testingapp.exception.InvalidEmployeeException;
+import com.dev.testingapp.exception.PreconditionFailedException;
+import com.dev.testingapp.exception.VersionConflictException;
 import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.EmployeeImportService;
 import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.importer.EmployeeRowValidator;
+import com.dev.testingapp.service.importer.ImportFormat;
+import com.dev.testingapp.service.writebehind.WriteBehindEmployeeWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/employees")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EmployeeController {
 
+    private static final Set<EmployeeField> VERSION_ONLY = Set.of(EmployeeField.VERSION);
+    private static final Set<EmployeeField> ID_AND_VERSION = Set.of(EmployeeField.ID, EmployeeField.VERSION);
+
     private EmployeeService employeeService;
+    private EmployeeImportService employeeImportService;
+    private WriteBehindEmployeeWriter writeBehindWriter;
+    private EmployeeChangeFeed changeFeed;
+    private ObjectMapper objectMapper;
+    private long changeStreamTimeout;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeImportService employeeImportService,
+                              WriteBehindEmployeeWriter writeBehindWriter, EmployeeChangeFeed changeFeed,
+                              ObjectMapper objectMapper,
+                              @Value("${employees.changes.timeout:30m}") Duration changeStreamTimeout) {
         this.employeeService = employeeService;
+        this.employeeImportService = employeeImportService;
+        this.writeBehindWriter = writeBehindWriter;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.changeStreamTimeout = changeStreamTimeout.toMillis();
     }
 
+    //With Prefer: respond-async and write-behind enabled the employee is validated, queued and answered 202
+    //with its status URL (429 when the queue is full); otherwise it is inserted before the response
     @PostMapping
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee,
+                                            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefersAsync(prefer)) {
+            Optional<PendingEmployee> pending = writeBehindWriter.submit(employee);
+            if (pending.isPresent()) {
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/employees/pending/" + pending.get().id()))
+                        .header("Preference-Applied", "respond-async")
+                        .body(pending.get());
+            }
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(employeeService.saveEmployee(employee));
+    }
+
+    @GetMapping("/pending/{pendingId}")
+    public ResponseEntity<PendingEmployee> getPendingEmployee(@PathVariable("pendingId") String pendingId) {
+        return writeBehindWriter.getStatus(pendingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee) {
-        return employeeService.saveEmployee(employee);
+    public List<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    //Bulk load from a CSV or NDJSON file, parsed while it uploads; rows that fail are listed in the report
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportReport importEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        return employeeImportService.importEmployees(body, ImportFormat.of(contentType));
+    }
+
+    //Progress of running imports and the reports of recent ones
+    @GetMapping("/import")
+    public List<ImportReport> getImports() {
+        return employeeImportService.getImports();
+    }
+
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ImportReport> getImport(@PathVariable("importId") String importId) {
+        return employeeImportService.getImport(importId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    //With If-None-Match only the ids and versions of the page are read to tag it, and an unchanged page
+    //is answered 304 without loading or serializing the employees
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public ResponseEntity<CursorPage<Employee>> getAllEmployees(@RequestParam(name = "after", required = false) String after,
+                                                                @RequestParam(name = "limit", defaultValue = "${employees.page.default-size:50}") int limit,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            CursorPage<EmployeeView> versions = employeeService.getEmployeeViewPage(after, limit, ID_AND_VERSION);
+            String etag = EmployeeETags.ofPage(versions.content(), EmployeeView::id, EmployeeView::version,
+                    versions.nextCursor());
+            if (EmployeeETags.matchesNoneMatch(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        CursorPage<Employee> page = employeeService.getEmployeePage(after, limit);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.ofPage(page.content(), Employee::getId, Employee::getVersion, page.nextCursor()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(page);
+    }
+
+    //All employees with this first and last name, in keyset pages like GET /api/employees
+    @GetMapping("/by-name")
+    public CursorPage<Employee> getEmployeesByName(@RequestParam("firstName") String firstName,
+                                                   @RequestParam("lastName") String lastName,
+                                                   @RequestParam(name = "after", required = false) String after,
+                                                   @RequestParam(name = "limit", defaultValue = "${employees.page.default-size:50}") int limit) {
+        return employeeService.getEmployeesByName(firstName, lastName, after, limit);
     }
 
+    //Resolves many names at once: every employee matching any of them, in keyset pages like GET /by-name
+    @PostMapping("/by-name")
+    public CursorPage<Employee> getEmployeesByNames(@RequestBody List<EmployeeName> names,
+                                                    @RequestParam(name = "after", required = false) String after,
+                                                    @RequestParam(name = "limit", defaultValue = "${employees.page.default-size:50}") int limit) {
+        return employeeService.getEmployeesByNames(names, after, limit);
+    }
+
+    //Type-ahead: employees whose first name, last name, full name or email starts with the prefix
+    @GetMapping("/search")
+    public List<EmployeeSuggestion> searchEmployees(@RequestParam("prefix") String prefix,
+                                                    @RequestParam(name = "limit", defaultValue = "${employees.search.default-results:10}") int limit) {
+        return employeeService.searchEmployees(prefix, limit);
+    }
+
+    //One IN query for many ids, in request order; ids that do not exist are left out
+    @GetMapping(params = "ids")
+    public List<Employee> getEmployeesByIds(@RequestParam("ids") List<Long> employeeIds) {
+        return employeeService.getEmployeesByIds(employeeIds);
+    }
+
+    //Sparse fieldset of the page, e.g. ?fields=id,email: only those columns are read and returned
+    @GetMapping(params = {"fields", "!ids"})
+    public CursorPage<EmployeeView> getEmployeeViews(@RequestParam("fields") String fields,
+                                                     @RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "limit", defaultValue = "${employees.page.default-size:50}") int limit) {
+        return employeeService.getEmployeeViewPage(after, limit, EmployeeField.parse(fields));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(){
+        ObjectWriter writer = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    //Committed creates, updates and deletes as server-sent events, from Last-Event-ID or ?after= when the
+    //client resumes, else from now on. Readers are sent events by the feed's threads and never hold up writes.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(@RequestParam(name = "after", required = false) Long after,
+                                 @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId)
+            throws IOException {
+        EmployeeChangeEmitter emitter = new EmployeeChangeEmitter(changeStreamTimeout);
+        emitter.subscribe(changeFeed, lastEventId != null ? lastEventId : after);
+        return emitter;
+    }
+
+    //With If-None-Match the version is read first, from the cache or a version-only query, so an unchanged
+    //employee is answered 304 without loading or serializing it
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        if (ifNoneMatch != null) {
+            Optional<String> etag = employeeService.getEmployeeViewById(employeeId, VERSION_ONLY)
+                    .map(view -> EmployeeETags.of(view.version(), accept));
+            if (etag.isPresent() && EmployeeETags.matchesNoneMatch(ifNoneMatch, etag.get())) {
+                return notModified(etag.get());
+            }
+        }
         return employeeService.getEmployeeById(employeeId)
+                .map(employee -> tagged(employee, accept))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<EmployeeView> getEmployeeViewById(@PathVariable("id") long employeeId,
+                                                            @RequestParam("fields") String fields) {
+        return employeeService.getEmployeeViewById(employeeId, EmployeeField.parse(fields))
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    //Replaces the employee, so every field is required, where PATCH keeps the fields it is not sent
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
-
-        return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-
-                    Employee employeeUpdated = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(employeeUpdated, HttpStatus.OK);
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String invalid = EmployeeRowValidator.validate(employee);
+        if (invalid != null) {
+            throw new InvalidEmployeeException(invalid);
+        }
+        EmployeePatch patch = new EmployeePatch(
+                employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+        return patchEmployee(employeeId, patch, ifMatch, accept);
+    }
 
+    //If-Match makes the write conditional on the tagged version: 412 when the employee moved on or is gone
+    @PatchMapping("/{id}")
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") long employeeId, @RequestBody EmployeePatch patch,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (ifMatch == null) {
+            return employeeService.patchEmployee(employeeId, patch)
+                    .map(employee -> tagged(employee, accept))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+        Long version = requiredVersion(employeeId, ifMatch);
+        if (version != null && patch.version() != null && !version.equals(patch.version())) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " and the body name different versions");
+        }
+        EmployeePatch conditional = version == null
+                ? patch
+                : new EmployeePatch(patch.firstName(), patch.lastName(), patch.email(), version);
+        return tagged(precondition(employeeId, ifMatch, () -> employeeService.patchEmployee(employeeId, conditional)),
+                accept);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
-        employeeService.deletedEmployee(employeeId);
+    public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long version = requiredVersion(employeeId, ifMatch);
+            precondition(employeeId, ifMatch, () -> {
+                boolean deleted = version == null
+                        ? employeeService.deletedEmployee(employeeId)
+                        : employeeService.deletedEmployee(employeeId, version);
+                return deleted ? Optional.of(employeeId) : Optional.empty();
+            });
+        } else if (!employeeService.deletedEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<>("Employee deleted successfully", HttpStatus.OK);
     }
+
+    @DeleteMapping(params = "ids")
+    public DeleteResult deleteEmployees(@RequestParam("ids") List<Long> employeeIds) {
+        return new DeleteResult(employeeService.deleteEmployees(employeeIds));
+    }
+
+    //Same as DELETE ?ids= for id lists too long for a query string
+    @PostMapping("/batch/delete")
+    public DeleteResult deleteEmployeesBatch(@RequestBody List<Long> employeeIds) {
+        return new DeleteResult(employeeService.deleteEmployees(employeeIds));
+    }
+
+    //RFC 7240: comma separated preferences, each possibly with parameters after a semicolon
+    private static boolean prefersAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.split(";", 2)[0].trim().equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<Employee> tagged(Employee employee, String accept) {
+        if (employee.getVersion() == null) {
+            return ResponseEntity.ok(employee);
+        }
+        return ResponseEntity.ok().eTag(EmployeeETags.of(employee.getVersion(), accept)).varyBy(HttpHeaders.ACCEPT)
+                .body(employee);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    //The version an If-Match header holds a write to, null for "*". The write checks it again atomically,
+    //so only a list of several tags needs the current version read here.
+    private Long requiredVersion(long employeeId, String ifMatch) {
+        if (EmployeeETags.isWildcard(ifMatch)) {
+            return null;
+        }
+        Set<Long> versions = EmployeeETags.versions(ifMatch);
+        if (versions.size() == 1) {
+            return versions.iterator().next();
+        }
+        return employeeService.getEmployeeViewById(employeeId, VERSION_ONLY)
+                .map(EmployeeView::version)
+                .filter(versions::contains)
+                .orElseThrow(() -> new PreconditionFailedException(
+                        "Employee " + employeeId + " does not match If-Match " + ifMatch));
+    }
+
+    private static <T> T precondition(long employeeId, String ifMatch, Supplier<Optional<T>> write) {
+        try {
+            return write.get().orElseThrow(() -> new PreconditionFailedException(
+                    "Employee " + employeeId + " does not match If-Match " + ifMatch));
+        } catch (VersionConflictException e) {
+            throw new PreconditionFailedException(e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.dev.testingapp.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+//Entity tags for the employee representations. An employee gets a strong tag, its row version, which every
+//write increments, followed by the format for CBOR and Smile: a strong tag promises identical bytes, so each
+//encoding of a version needs its own. If-Match only names the version, whatever format its tag came from.
+//A page gets a digest of its ids and versions and of whether another page follows, so the tag changes exactly
+//when the page body would; it is weak because Tomcat does not gzip responses with a strong tag, and pages are
+//only compared with If-None-Match.
+final class EmployeeETags {
+
+    //in the order the message converters offer them, JSON first as the default
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "-cbor");
+        FORMATS.put(new MediaType("application", "x-jackson-smile"), "-smile");
+    }
+
+    private EmployeeETags() {
+    }
+
+    //The tag of the format content negotiation picks for this Accept header, so a 304 can be answered before
+    //the body is written
+    static String of(long version, String accept) {
+        return "\"" + version + format(accept) + "\"";
+    }
+
+    //stored rows always have both; an unsaved one digests as 0
+    static <T> String ofPage(List<T> content, Function<T, Long> id, Function<T, Long> version, String nextCursor) {
+        ByteBuffer rows = ByteBuffer.allocate(content.size() * 2 * Long.BYTES + 1);
+        for (T row : content) {
+            rows.putLong(Objects.requireNonNullElse(id.apply(row), 0L))
+                    .putLong(Objects.requireNonNullElse(version.apply(row), 0L));
+        }
+        rows.put((byte) (nextCursor == null ? 0 : 1));
+        return "W/\"" + DigestUtils.md5DigestAsHex(rows.array()) + "\"";
+    }
+
+    //If-None-Match uses the weak comparison, so W/ prefixes are ignored
+    static boolean matchesNoneMatch(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isWildcard(String ifMatch) {
+        return ifMatch.trim().equals("*");
+    }
+
+    //The versions the strong tags of an If-Match list name; weak and foreign tags can never match
+    static Set<Long> versions(String ifMatch) {
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.length() > 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+                String value = candidate.substring(1, candidate.length() - 1);
+                int dash = value.indexOf('-');
+                if (dash > 0 && FORMATS.containsValue(value.substring(dash))) {
+                    value = value.substring(0, dash);
+                }
+                try {
+                    versions.add(Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    //not one of ours
+                }
+            }
+        }
+        return versions;
+    }
+
+    //Same choice as Spring MVC: the accepted types by specificity and quality, the first format one accepts
+    private static String format(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (Map.Entry<MediaType, String> format : FORMATS.entrySet()) {
+                if (type.isCompatibleWith(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
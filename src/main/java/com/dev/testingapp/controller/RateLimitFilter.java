@@ -0,0 +1,102 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.service.limit.ClientRateLimiter;
+import com.dev.testingapp.service.limit.ClientRateLimiter.Budget;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+//Charges each /api/employees request to its client's budget and answers 429 once the budget is spent. The
+//draft IETF RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset headers go on every answer, and
+//Retry-After on a 429. Clients are named by the API key header, else by their address; keys are not
+//checked, so this only tames well-meaning clients that misbehave.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/employees";
+
+    private final ClientRateLimiter rateLimiter;
+    private final String clientHeader;
+    private final int bulkCost;
+    private final int importCost;
+    private final int exportCost;
+    private final Map<Budget, Counter> rejected;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, EmployeeProperties.RateLimit settings,
+                           Map<Budget, Counter> rejected) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = settings.getClientHeader();
+        this.bulkCost = cost("bulk-cost", settings.getBulkCost(), settings.getWrites());
+        this.importCost = cost("import-cost", settings.getImportCost(), settings.getWrites());
+        this.exportCost = cost("export-cost", settings.getExportCost(), settings.getLists());
+        this.rejected = rejected;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        boolean ids = request.getParameter("ids") != null;
+        Budget budget = budget(method, path, ids);
+        ClientRateLimiter.Decision decision = rateLimiter.tryAcquire(client(request), budget, cost(method, path, ids));
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        if (!decision.allowed()) {
+            rejected.get(budget).increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Rate limit exceeded, retry later");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    //The limiter charges at most a bucket's capacity, so a larger cost would silently weigh less than configured
+    private static int cost(String name, int cost, EmployeeProperties.RateLimit.Bucket bucket) {
+        if (cost > bucket.getCapacity()) {
+            throw new IllegalStateException("employees.rate-limit." + name + " is " + cost
+                    + ", more than the capacity of its bucket, " + bucket.getCapacity());
+        }
+        return cost;
+    }
+
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        return key != null && !key.isEmpty() ? "key:" + key : "address:" + request.getRemoteAddr();
+    }
+
+    //POST /by-name only looks employees up
+    private static Budget budget(String method, String path, boolean ids) {
+        if (method.equals("GET") || method.equals("HEAD")) {
+            return path.equals(API_PATH) && !ids || path.equals(API_PATH + "/export") ? Budget.LISTS : Budget.READS;
+        }
+        return method.equals("POST") && path.equals(API_PATH + "/by-name") ? Budget.READS : Budget.WRITES;
+    }
+
+    private int cost(String method, String path, boolean ids) {
+        if (path.equals(API_PATH + "/export")) {
+            return exportCost;
+        }
+        if (path.equals(API_PATH + "/import") && method.equals("POST")) {
+            return importCost;
+        }
+        if (path.equals(API_PATH + "/batch") || path.equals(API_PATH + "/batch/delete")
+                || method.equals("DELETE") && ids) {
+            return bulkCost;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.DeleteResult;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.exception.InvalidEmployeeException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.ReactiveEmployeeService;
+import com.dev.testingapp.service.importer.EmployeeRowValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+//Same API as EmployeeController on WebFlux and R2DBC, served instead of it when the application
+//runs with spring.main.web-application-type=reactive
+@RestController
+@RequestMapping("/api/employees")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    @GetMapping
+    public Mono<CursorPage<Employee>> getAllEmployees(@RequestParam(name = "after", required = false) String after,
+                                                      @RequestParam(name = "limit", defaultValue = "${employees.page.default-size:50}") int limit){
+        return employeeService.getEmployeePage(after, limit);
+    }
+
+    //Rows are read from the database only as fast as the client consumes them
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> exportEmployees(){
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+        return employeeService.getEmployeeById(employeeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    //Replaces the employee, so every field is required, where PATCH keeps the fields it is not sent
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
+        String invalid = EmployeeRowValidator.validate(employee);
+        if (invalid != null) {
+            return Mono.error(new InvalidEmployeeException(invalid));
+        }
+        EmployeePatch patch = new EmployeePatch(
+                employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+        return patchEmployee(employeeId, patch);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> patchEmployee(@PathVariable("id") long employeeId, @RequestBody EmployeePatch patch) {
+        return employeeService.patchEmployee(employeeId, patch)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId) {
+        return employeeService.deletedEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee deleted successfully", HttpStatus.OK)
+                        : ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping(params = "ids")
+    public Mono<DeleteResult> deleteEmployees(@RequestParam("ids") List<Long> employeeIds) {
+        return employeeService.deleteEmployees(employeeIds).map(DeleteResult::new);
+    }
+
+    @PostMapping("/batch/delete")
+    public Mono<DeleteResult> deleteEmployeesBatch(@RequestBody List<Long> employeeIds) {
+        return employeeService.deleteEmployees(employeeIds).map(DeleteResult::new);
+    }
+}
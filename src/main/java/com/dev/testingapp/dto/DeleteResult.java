@@ -0,0 +1,4 @@
+package com.dev.testingapp.dto;
+
+public record DeleteResult(long deleted) {
+}
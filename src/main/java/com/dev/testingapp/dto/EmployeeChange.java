@@ -0,0 +1,13 @@
+package com.dev.testingapp.dto;
+
+import com.dev.testingapp.model.Employee;
+
+import java.time.Instant;
+
+//One committed write, numbered in commit order. employee is the state written, null for a deletion.
+public record EmployeeChange(long sequence, Type type, long employeeId, Employee employee, Instant committedAt) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,45 @@
+package com.dev.testingapp.dto;
+
+import com.dev.testingapp.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+//The Employee columns a client can ask for with ?fields=, named as in the JSON and on the entity
+public enum EmployeeField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    VERSION("version");
+
+    private final String property;
+
+    EmployeeField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    //"id,email" to {ID, EMAIL}
+    public static Set<EmployeeField> parse(String fields) {
+        Set<EmployeeField> parsed = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldsException("Unknown employee field: " + property)));
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidFieldsException("fields must name at least one of id, firstName, lastName, email, version");
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,5 @@
+package com.dev.testingapp.dto;
+
+//A first and last name pair to look up; several employees may share it
+public record EmployeeName(String firstName, String lastName) {
+}
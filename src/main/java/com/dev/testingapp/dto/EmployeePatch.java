@@ -0,0 +1,9 @@
+package com.dev.testingapp.dto;
+
+//Partial update: null fields are left unchanged. A non-null version makes the update conditional on it.
+public record EmployeePatch(String firstName, String lastName, String email, Long version) {
+
+    public boolean hasChanges() {
+        return firstName != null || lastName != null || email != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.dev.testingapp.dto;
+
+import com.dev.testingapp.model.Employee;
+
+//A type-ahead search hit: the employee's identifying columns, served from memory without a version
+public record EmployeeSuggestion(long id, String firstName, String lastName, String email) {
+
+    public static EmployeeSuggestion of(Employee employee) {
+        return new EmployeeSuggestion(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail());
+    }
+}
@@ -0,0 +1,25 @@
+package com.dev.testingapp.dto;
+
+import com.dev.testingapp.model.Employee;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+//Sparse fieldset of an employee: every column is NOT NULL, so null means not requested and is left out
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeView(Long id, String firstName, String lastName, String email, Long version) {
+
+    public static EmployeeView of(Employee employee, Set<EmployeeField> fields) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getVersion()).only(fields);
+    }
+
+    public EmployeeView only(Set<EmployeeField> fields) {
+        return new EmployeeView(
+                fields.contains(EmployeeField.ID) ? id : null,
+                fields.contains(EmployeeField.FIRST_NAME) ? firstName : null,
+                fields.contains(EmployeeField.LAST_NAME) ? lastName : null,
+                fields.contains(EmployeeField.EMAIL) ? email : null,
+                fields.contains(EmployeeField.VERSION) ? version : null);
+    }
+}
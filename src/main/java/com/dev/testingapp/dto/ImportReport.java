@@ -0,0 +1,14 @@
+package com.dev.testingapp.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+//Progress of a bulk import, final once status is no longer RUNNING. errors holds at most
+//employees.bulk-import.max-reported-errors entries; failed counts all of them.
+public record ImportReport(String id, Status status, long rowsRead, long imported, long failed,
+                           List<ImportRowError> errors, Instant startedAt, Instant finishedAt) {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
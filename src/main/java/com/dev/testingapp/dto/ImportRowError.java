@@ -0,0 +1,5 @@
+package com.dev.testingapp.dto;
+
+//A rejected input row; line is 1-based in the uploaded file, email is null when the row did not parse
+public record ImportRowError(long line, String email, String message) {
+}
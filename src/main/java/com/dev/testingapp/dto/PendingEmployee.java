@@ -0,0 +1,21 @@
+package com.dev.testingapp.dto;
+
+import java.time.Instant;
+
+//An employee accepted for write-behind creation. employeeId is set once it is CREATED and message
+//once it has FAILED; writtenAt is when its batch was written either way.
+public record PendingEmployee(String id, Status status, Long employeeId, String message,
+                              Instant acceptedAt, Instant writtenAt) {
+
+    public enum Status {
+        PENDING, CREATED, FAILED
+    }
+
+    public PendingEmployee created(long employeeId) {
+        return new PendingEmployee(id, Status.CREATED, employeeId, null, acceptedAt, Instant.now());
+    }
+
+    public PendingEmployee failed(String message) {
+        return new PendingEmployee(id, Status.FAILED, null, message, acceptedAt, Instant.now());
+    }
+}
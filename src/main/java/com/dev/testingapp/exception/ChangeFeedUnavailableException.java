@@ -0,0 +1,16 @@
+package com.dev.testingapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChangeFeedUnavailableException extends RuntimeException{
+
+    public ChangeFeedUnavailableException(String message){
+        super(message);
+    }
+
+    public ChangeFeedUnavailableException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
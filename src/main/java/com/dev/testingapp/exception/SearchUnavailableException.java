@@ -0,0 +1,12 @@
+package com.dev.testingapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SearchUnavailableException extends RuntimeException{
+
+    public SearchUnavailableException(String message){
+        super(message);
+    }
+}
@@ -5,16 +5,27 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@DynamicUpdate
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        //name lookups seek on the name and read matches in id order straight from the index
+        indexes = @Index(name = Employee.NAME_INDEX, columnList = "firstName, lastName, id"))
 public class Employee {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+    public static final String NAME_INDEX = "idx_employees_name";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    //a table created with IDENTITY ids needs db/mysql/employees_seq.sql before new rows are inserted
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @Column(nullable = false)
     private String firstName;
@@ -22,4 +33,7 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
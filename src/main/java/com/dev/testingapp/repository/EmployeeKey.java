@@ -0,0 +1,7 @@
+package com.dev.testingapp.repository;
+
+//Projection of the columns that identify an employee
+public interface EmployeeKey {
+    Long getId();
+    String getEmail();
+}
@@ -0,0 +1,12 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.model.Employee;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeNameRepository {
+    //Up to limit employees after afterId matching any of the names, in id order
+    List<Employee> findByNameIn(Collection<EmployeeName> names, long afterId, int limit);
+}
@@ -0,0 +1,44 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+class EmployeeNameRepositoryImpl implements EmployeeNameRepository {
+
+    private final EntityManager entityManager;
+
+    EmployeeNameRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Employee> findByNameIn(Collection<EmployeeName> names, long afterId, int limit) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> employee = query.from(Employee.class);
+
+        //an or of (first_name = ? and last_name = ?) pairs: MySQL reads one range of the name index per pair,
+        //where first_name in (...) and last_name in (...) would also read every crossed pair
+        Predicate[] pairs = Set.copyOf(names).stream()
+                .map(name -> cb.and(
+                        cb.equal(employee.get("firstName"), name.firstName()),
+                        cb.equal(employee.get("lastName"), name.lastName())))
+                .toArray(Predicate[]::new);
+        query.select(employee)
+                .where(cb.or(pairs), cb.greaterThan(employee.<Long>get("id"), afterId))
+                .orderBy(cb.asc(employee.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,8 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeePatch;
+
+public interface EmployeePatchRepository {
+    //Single UPDATE of the non-null fields plus the version; returns the number of rows updated
+    int patch(long id, EmployeePatch patch);
+}
@@ -0,0 +1,47 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+class EmployeePatchRepositoryImpl implements EmployeePatchRepository {
+
+    private final EntityManager entityManager;
+
+    EmployeePatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int patch(long id, EmployeePatch patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> employee = update.from(Employee.class);
+
+        if (patch.firstName() != null) {
+            update.set(employee.<String>get("firstName"), patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            update.set(employee.<String>get("lastName"), patch.lastName());
+        }
+        if (patch.email() != null) {
+            update.set(employee.<String>get("email"), patch.email());
+        }
+        update.set(employee.<Long>get("version"), cb.sum(employee.<Long>get("version"), 1L));
+
+        Predicate byId = cb.equal(employee.get("id"), id);
+        update.where(patch.version() == null ? byId : cb.and(byId, cb.equal(employee.get("version"), patch.version())));
+
+        //same as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -1,36 +1,78 @@
 package com.dev.testingapp.repository;
 
+import com.dev.testingapp.dto.EmployeeSuggestion;
 import com.dev.testingapp.model.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeePatchRepository,
+        EmployeeNameRepository, EmployeeViewRepository {
+    int EXPORT_FETCH_SIZE = 500;
+
     Optional<Employee> findByEmail(String email);
 
-    //Define custom query using JPQL with index params
-    @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
-
-    //Define custom query using JPQL with named params
-    @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
-
-    //Define custom query with native SQL with index params
-    @Query(
-            value = "select * from employees e where e.first_name =?1 and e.last_name =?2",
-            nativeQuery = true
-    )
-    Employee findByNativeSQL(String firstName, String lastName);
-
-    //Define custom query with native SQL with named params
-    @Query(
-            value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName",
-            nativeQuery = true
-    )
-    Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    //Locks the rows found, so a concurrent delete of the same ids waits and then finds them gone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findExistingIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    //Keyset page: seeks past the last seen id on the primary key, so no OFFSET scan and no count query
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    //Forward-only cursor over the whole table; must be consumed inside a transaction and closed.
+    //On MySQL the fetch size only streams with useCursorFetch=true on the JDBC url
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAllByOrderByIdAsc();
+
+    //Single DELETE statements; unlike deleteById they do not load the entity first
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id = :id and e.version = :version")
+    int deleteEmployeeByIdAndVersion(@Param("id") long id, @Param("version") long version);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select e.id as id, e.email as email from Employee e")
+    Stream<EmployeeKey> streamKeysBy();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select new com.dev.testingapp.dto.EmployeeSuggestion(e.id, e.firstName, e.lastName, e.email) from Employee e")
+    Stream<EmployeeSuggestion> streamSuggestionsBy();
+
+    //Keyset page of the employees sharing a name, served by the (first_name, last_name, id) index
+    List<Employee> findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(String firstName, String lastName, long id,
+                                                                         Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+//Reads of only the requested columns into EmployeeView records, never into managed entities.
+//The id is always read and set, whether requested or not.
+public interface EmployeeViewRepository {
+    //Keyset page like findByIdGreaterThanOrderByIdAsc
+    List<EmployeeView> findViewsByIdGreaterThan(long afterId, int limit, Set<EmployeeField> fields);
+
+    Optional<EmployeeView> findViewById(long id, Set<EmployeeField> fields);
+}
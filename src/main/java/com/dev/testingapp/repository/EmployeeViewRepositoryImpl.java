@@ -0,0 +1,74 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class EmployeeViewRepositoryImpl implements EmployeeViewRepository {
+
+    private final EntityManager entityManager;
+
+    EmployeeViewRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    //Tuples are not entities: nothing enters the persistence context, so there is no snapshot to keep
+    //or flush, and the read-only transaction needs no dirty check on commit
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> findViewsByIdGreaterThan(long afterId, int limit, Set<EmployeeField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(selections(employee, fields))
+                .where(cb.gt(employee.get("id"), afterId))
+                .orderBy(cb.asc(employee.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(row -> toView(row, fields))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EmployeeView> findViewById(long id, Set<EmployeeField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(selections(employee, fields)).where(cb.equal(employee.get("id"), id));
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(row -> toView(row, fields));
+    }
+
+    private static List<Selection<?>> selections(Root<Employee> employee, Set<EmployeeField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        selections.add(employee.get(EmployeeField.ID.property()).alias(EmployeeField.ID.property()));
+        for (EmployeeField field : fields) {
+            if (field != EmployeeField.ID) {
+                selections.add(employee.get(field.property()).alias(field.property()));
+            }
+        }
+        return selections;
+    }
+
+    private static EmployeeView toView(Tuple row, Set<EmployeeField> fields) {
+        return new EmployeeView(
+                row.get(EmployeeField.ID.property(), Long.class),
+                fields.contains(EmployeeField.FIRST_NAME) ? row.get(EmployeeField.FIRST_NAME.property(), String.class) : null,
+                fields.contains(EmployeeField.LAST_NAME) ? row.get(EmployeeField.LAST_NAME.property(), String.class) : null,
+                fields.contains(EmployeeField.EMAIL) ? row.get(EmployeeField.EMAIL.property(), String.class) : null,
+                fields.contains(EmployeeField.VERSION) ? row.get(EmployeeField.VERSION.property(), Long.class) : null);
+    }
+}
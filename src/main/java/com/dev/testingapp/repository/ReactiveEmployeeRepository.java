@@ -0,0 +1,180 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.model.Employee;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+//The employees table over R2DBC, for the reactive variant of the API. Same table and id sequence as the
+//JPA mapping in Employee, written as plain SQL since Spring Data R2DBC cannot read the JPA annotations.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version";
+
+    private DatabaseClient databaseClient;
+    private ConnectionFactory connectionFactory;
+    private boolean nativeSequence;
+
+    //what is left of the last block of ids taken from employees_seq
+    private final Object idBlock = new Object();
+    private long nextId = 1;
+    private long lastId = 0;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.connectionFactory = connectionFactory;
+        //Hibernate emulates employees_seq with a one-row table on MySQL, which has no sequences
+        this.nativeSequence = !"MySQL".equalsIgnoreCase(connectionFactory.getMetadata().getName());
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM employees WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("SELECT 1 FROM employees WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    //Rows are fetched as the subscriber requests them
+    public Flux<Employee> findAllByOrderByIdAsc() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM employees ORDER BY id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<Employee> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM employees WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    //The email unique constraint rejects duplicates
+    public Mono<Employee> insert(Employee employee) {
+        return nextId().flatMap(id -> databaseClient
+                .sql("INSERT INTO employees (" + COLUMNS + ") VALUES (:id, :firstName, :lastName, :email, 0)")
+                .bind("id", id)
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(new Employee(id, employee.getFirstName(), employee.getLastName(), employee.getEmail(), 0L)));
+    }
+
+    //Same statement as EmployeePatchRepository.patch
+    public Mono<Long> patch(long id, EmployeePatch patch) {
+        List<String> assignments = new ArrayList<>();
+        if (patch.firstName() != null) {
+            assignments.add("first_name = :firstName");
+        }
+        if (patch.lastName() != null) {
+            assignments.add("last_name = :lastName");
+        }
+        if (patch.email() != null) {
+            assignments.add("email = :email");
+        }
+        assignments.add("version = version + 1");
+
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql("UPDATE employees SET "
+                        + String.join(", ", assignments)
+                        + " WHERE id = :id" + (patch.version() == null ? "" : " AND version = :version"))
+                .bind("id", id);
+        if (patch.firstName() != null) {
+            update = update.bind("firstName", patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            update = update.bind("lastName", patch.lastName());
+        }
+        if (patch.email() != null) {
+            update = update.bind("email", patch.email());
+        }
+        if (patch.version() != null) {
+            update = update.bind("version", patch.version());
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM employees WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("DELETE FROM employees WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    //Hands out ids like Hibernate's pooled optimizer: a sequence value v reserves the ids v - 49 to v, so the
+    //ids never collide with those Hibernate hands out
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (idBlock) {
+                if (nextId <= lastId) {
+                    return Mono.just(nextId++);
+                }
+            }
+            return nextSequenceValue().map(value -> {
+                synchronized (idBlock) {
+                    //a block taken by a concurrent insert is replaced, leaving a gap
+                    lastId = value;
+                    nextId = Math.max(1, value - Employee.ID_ALLOCATION_SIZE + 1);
+                    return nextId++;
+                }
+            });
+        });
+    }
+
+    private Mono<Long> nextSequenceValue() {
+        if (nativeSequence) {
+            return databaseClient.sql("SELECT NEXT VALUE FOR employees_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        //on a connection of its own, outside the caller's transaction: a rollback must not give back a block
+        //that is still being handed out. Hibernate reads next_val and adds the allocation size, in one
+        //statement here.
+        return Mono.usingWhen(connectionFactory.create(),
+                connection -> Mono.from(connection.createStatement("UPDATE employees_seq"
+                                        + " SET next_val = LAST_INSERT_ID(next_val + " + Employee.ID_ALLOCATION_SIZE + ")")
+                                .execute())
+                        .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                        .then(Mono.from(connection.createStatement("SELECT LAST_INSERT_ID()").execute()))
+                        .flatMap(result -> Mono.from(result.map(row -> row.get(0, Long.class))))
+                        .map(next -> next - Employee.ID_ALLOCATION_SIZE),
+                Connection::close);
+    }
+
+    private static Employee toEmployee(Readable row) {
+        return new Employee(
+                row.get("id", Long.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.dev.testingapp.service;
+
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.service.importer.ImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeImportService {
+    ImportReport importEmployees(InputStream input, ImportFormat format);
+    Optional<ImportReport> getImport(String id);
+    List<ImportReport> getImports();
+
+}
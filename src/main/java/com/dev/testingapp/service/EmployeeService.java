@@ -1,15 +1,36 @@
 package com.dev.testingapp.service;
 
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
 import com.dev.testingapp.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
+    List<Employee> saveEmployees(List<Employee> employees);
     List<Employee> getAllEmployees();
+    CursorPage<Employee> getEmployeePage(String after, int limit);
+    CursorPage<EmployeeView> getEmployeeViewPage(String after, int limit, Set<EmployeeField> fields);
+    CursorPage<Employee> getEmployeesByName(String firstName, String lastName, String after, int limit);
+    CursorPage<Employee> getEmployeesByNames(Collection<EmployeeName> names, String after, int limit);
+    List<EmployeeSuggestion> searchEmployees(String prefix, int limit);
+    long exportEmployees(Consumer<Employee> sink);
     Optional<Employee> getEmployeeById(long id);
+    Optional<EmployeeView> getEmployeeViewById(long id, Set<EmployeeField> fields);
+    List<Employee> getEmployeesByIds(Collection<Long> ids);
     Employee updateEmployee(Employee employee);
-    void deletedEmployee(long id);
+    Optional<Employee> patchEmployee(long id, EmployeePatch patch);
+    boolean deletedEmployee(long id);
+    boolean deletedEmployee(long id, long version);
+    long deleteEmployees(Collection<Long> ids);
 
 }
@@ -0,0 +1,22 @@
+package com.dev.testingapp.service;
+
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReactiveEmployeeService {
+    Mono<Employee> saveEmployee(Employee employee);
+    Flux<Employee> saveEmployees(List<Employee> employees);
+    Flux<Employee> getAllEmployees();
+    Mono<CursorPage<Employee>> getEmployeePage(String after, int limit);
+    Mono<Employee> getEmployeeById(long id);
+    Mono<Employee> patchEmployee(long id, EmployeePatch patch);
+    Mono<Boolean> deletedEmployee(long id);
+    Mono<Long> deleteEmployees(Collection<Long> ids);
+
+}
@@ -0,0 +1,356 @@
+package com.dev.testingapp.service.changes;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeeChange;
+import com.dev.testingapp.exception.ChangeFeedUnavailableException;
+import com.dev.testingapp.model.Employee;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Committed employee writes in a fixed-size ring buffer, numbered in commit order. A write inside a
+//transaction is appended when it commits, so rolled back writes are never seen. Appending only takes the
+//buffer lock briefly and flags the subscribers; their events are sent by a small pool of sender threads,
+//one sender per subscriber at a time, so a slow client only falls behind. Once the buffer has wrapped past
+//a subscriber's position it is sent lost() and dropped, and resumes after re-reading the employees.
+//A write still blocked after the write timeout, on a client that stopped reading, drops its subscriber too;
+//the pool gets a thread in place of the blocked one until the write fails, so the other clients go on.
+//Streams are ended when the application stops, before the web server, which would otherwise wait for them.
+@Component
+public class EmployeeChangeFeed implements SmartLifecycle {
+
+    private static final int MAX_EVENTS_PER_READ = 256;
+
+    //Receives one subscriber's events, never from two threads at once
+    public interface Sink {
+
+        void send(EmployeeChange change) throws IOException;
+
+        //the changes after this sink's position were overwritten; latest is the newest sequence
+        void lost(long latest) throws IOException;
+
+        void complete();
+    }
+
+    public interface Subscription {
+
+        //stops the events and completes the sink
+        void cancel();
+    }
+
+    private final EmployeeChange[] ring;
+    private final int mask;
+    private final int maxSubscribers;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    //sequences continue from the start time in microseconds, so the position of a client of an earlier
+    //run is always before this run's buffer and it is told to re-read instead of missing changes
+    private final long start = System.currentTimeMillis() * 1000;
+    private long latest = start;
+    private volatile boolean running;
+
+    public EmployeeChangeFeed(EmployeeProperties properties) {
+        EmployeeProperties.Changes settings = properties.getChanges();
+        int size = Integer.highestOneBit(Math.max(2, settings.getBufferSize() - 1)) << 1;
+        this.ring = new EmployeeChange[size];
+        this.mask = size - 1;
+        this.maxSubscribers = settings.getMaxSubscribers();
+        this.writeTimeoutNanos = settings.getWriteTimeout().toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        int senderThreads = Math.max(1, settings.getSenderThreads());
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> daemon(task, "employee-changes-" + threads.incrementAndGet()));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "employee-changes-watchdog"));
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public void created(Employee employee) {
+        publish(EmployeeChange.Type.CREATED, List.of(employee));
+    }
+
+    public void created(Collection<Employee> employees) {
+        publish(EmployeeChange.Type.CREATED, employees);
+    }
+
+    public void updated(Employee employee) {
+        publish(EmployeeChange.Type.UPDATED, List.of(employee));
+    }
+
+    public void deleted(long id) {
+        deleted(List.of(id));
+    }
+
+    public void deleted(Collection<Long> ids) {
+        List<EmployeeChange> changes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            changes.add(new EmployeeChange(0, EmployeeChange.Type.DELETED, id, null, null));
+        }
+        afterCommit(changes);
+    }
+
+    public synchronized long latestSequence() {
+        return latest;
+    }
+
+    //Streams the changes after the given sequence to the sink, or only new ones when after is null
+    public Subscription subscribe(Long after, Sink sink) {
+        Subscriber subscriber = new Subscriber(after == null ? latestSequence() : after, sink);
+        subscribers.add(subscriber);
+        if (!running) {
+            subscribers.remove(subscriber);
+            throw new ChangeFeedUnavailableException("The change feed is not running");
+        }
+        if (subscribers.size() > maxSubscribers) {
+            subscribers.remove(subscriber);
+            throw new ChangeFeedUnavailableException("Too many change feed subscribers, retry later");
+        }
+        subscriber.signal();
+        return subscriber;
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    private void publish(EmployeeChange.Type type, Collection<Employee> employees) {
+        List<EmployeeChange> changes = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            //the caller keeps the instance and may change it later
+            Employee snapshot = Employee.builder()
+                    .id(employee.getId())
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .version(employee.getVersion())
+                    .build();
+            changes.add(new EmployeeChange(0, type, employee.getId(), snapshot, null));
+        }
+        afterCommit(changes);
+    }
+
+    private void afterCommit(List<EmployeeChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(changes);
+            }
+        });
+    }
+
+    private void append(List<EmployeeChange> changes) {
+        Instant committedAt = Instant.now();
+        synchronized (this) {
+            for (EmployeeChange change : changes) {
+                latest++;
+                ring[(int) (latest & mask)] = new EmployeeChange(latest, change.type(), change.employeeId(),
+                        change.employee(), committedAt);
+            }
+        }
+        subscribers.forEach(Subscriber::signal);
+    }
+
+    //The changes after the given sequence, at most max of them; null when some were overwritten already
+    private synchronized List<EmployeeChange> read(long after, int max) {
+        long oldest = Math.max(latest - ring.length, start) + 1;
+        if (after + 1 < oldest || after > latest) {
+            return null;
+        }
+        int count = (int) Math.min(max, latest - after);
+        List<EmployeeChange> changes = new ArrayList<>(count);
+        for (long sequence = after + 1; sequence <= after + count; sequence++) {
+            changes.add(ring[(int) (sequence & mask)]);
+        }
+        return changes;
+    }
+
+    //Drops the subscribers whose current write has been blocked for longer than the write timeout
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.abandon(now)) {
+                subscribers.remove(subscriber);
+                resizeSenders(1);
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), writeTimeoutNanos / 2);
+        watchdog.scheduleAtFixedRate(this::dropStalledSubscribers, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        watchdog.shutdownNow();
+        subscribers.forEach(Subscriber::cancel);
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(1, TimeUnit.SECONDS)) {
+                //a sender stuck on a client that stopped reading
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private final class Subscriber implements Subscription {
+
+        private final Sink sink;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+        //only touched by the sender holding scheduled
+        private long position;
+        //guarded by this: the start of the write in progress, and whether the watchdog gave up on it
+        private boolean writing;
+        private long writeStarted;
+        private boolean abandoned;
+
+        private Subscriber(long position, Sink sink) {
+            this.position = position;
+            this.sink = sink;
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                subscribers.remove(this);
+                sink.complete();
+            }
+        }
+
+        private void signal() {
+            if (!cancelled && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    //shutting down
+                    cancel();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!cancelled) {
+                    List<EmployeeChange> changes = read(position, MAX_EVENTS_PER_READ);
+                    if (changes == null) {
+                        long latest = latestSequence();
+                        write(() -> sink.lost(latest));
+                        cancel();
+                        return;
+                    }
+                    if (changes.isEmpty()) {
+                        scheduled.set(false);
+                        //an append between the read and the reset found scheduled still set
+                        if (latestSequence() == position || !scheduled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    for (EmployeeChange change : changes) {
+                        if (cancelled) {
+                            return;
+                        }
+                        write(() -> sink.send(change));
+                        position = change.sequence();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                //the client went away
+                cancel();
+            }
+        }
+
+        private void write(Write write) throws IOException {
+            synchronized (this) {
+                writing = true;
+                writeStarted = System.nanoTime();
+            }
+            try {
+                write.run();
+            } finally {
+                boolean replaced;
+                synchronized (this) {
+                    writing = false;
+                    replaced = abandoned;
+                }
+                if (replaced) {
+                    //the pool no longer needs the thread added in place of this one
+                    resizeSenders(-1);
+                    sink.complete();
+                }
+            }
+        }
+
+        //Called by the watchdog: true when the write in progress is past the timeout, and the subscriber is
+        //now cancelled; its sender completes the sink once the write returns
+        private synchronized boolean abandon(long now) {
+            if (!writing || abandoned || cancelled || now - writeStarted < writeTimeoutNanos) {
+                return false;
+            }
+            abandoned = true;
+            cancelled = true;
+            return true;
+        }
+    }
+
+    private interface Write {
+
+        void run() throws IOException;
+    }
+}
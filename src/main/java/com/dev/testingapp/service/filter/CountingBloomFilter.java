@@ -0,0 +1,139 @@
+package com.dev.testingapp.service.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Counting Bloom filter with 4-bit saturating counters packed sixteen to a long. Every counter update is a
+//CAS on its word, so lookups never block and never return a false negative for a key that was added and
+//not removed. A saturated counter is never decremented again, which only costs false positives.
+public class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final int BITS_PER_COUNTER = 4;
+    private static final long COUNTER_MAX = 0xFL;
+
+    private final AtomicLongArray words;
+    private final long numCounters;
+    private final int numHashes;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long optimalCounters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = Math.toIntExact(Math.max(1, (optimalCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.words = new AtomicLongArray(wordCount);
+        this.numCounters = (long) wordCount * COUNTERS_PER_WORD;
+        this.numHashes = Math.max(1, (int) Math.round((double) numCounters / expectedInsertions * ln2));
+    }
+
+    public void add(long hash) {
+        for (int i = 0; i < numHashes; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    //Only call for keys that were added; removing an absent key can hide other keys
+    public void remove(long hash) {
+        if (!mightContain(hash)) {
+            return;
+        }
+        for (int i = 0; i < numHashes; i++) {
+            decrement(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        for (int i = 0; i < numHashes; i++) {
+            if (counter(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getNumCounters() {
+        return numCounters;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public long getSizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public static long hash(long value) {
+        //murmur3 fmix64 finalizer
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static long hash(String value) {
+        //FNV-1a over the chars, then mixed so both halves are usable as independent hashes
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return hash(h);
+    }
+
+    //Kirsch-Mitzenmacher double hashing: k indexes from the two 32-bit halves of one 64-bit hash
+    private long index(long hash, int i) {
+        long h1 = (int) hash;
+        long h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, numCounters);
+    }
+
+    private long counter(long index) {
+        int shift = shift(index);
+        return (words.get(word(index)) >>> shift) & COUNTER_MAX;
+    }
+
+    private void increment(long index) {
+        int word = word(index);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            if (((current >>> shift) & COUNTER_MAX) == COUNTER_MAX) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int word = word(index);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MAX;
+            if (counter == 0 || counter == COUNTER_MAX) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int word(long index) {
+        return (int) (index / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * BITS_PER_COUNTER;
+    }
+}
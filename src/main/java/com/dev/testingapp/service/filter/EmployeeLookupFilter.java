@@ -0,0 +1,188 @@
+package com.dev.testingapp.service.filter;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeKey;
+import com.dev.testingapp.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+//In-memory membership filter over existing ids and emails. A negative answer means the row definitely
+//does not exist, so the caller can skip the database. Until the first build completes, and when disabled,
+//every answer is "might contain". Writes made outside this instance are only picked up by a rebuild.
+@Component
+public class EmployeeLookupFilter {
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnly;
+    private final EmployeeProperties.LookupFilter settings;
+
+    //adds and the swap of a rebuilt filter take this, so an add lands in the filter that ends up current
+    private final Object swap = new Object();
+    private volatile Filters current;
+    private volatile Filters building;
+    private long rebuilds;
+    private volatile long lastRebuildRows;
+    private volatile Instant lastRebuildAt;
+
+    public EmployeeLookupFilter(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager,
+                                EmployeeProperties properties) {
+        this.employeeRepository = employeeRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.settings = properties.getLookupFilter();
+    }
+
+    public boolean mightContainId(long id) {
+        Filters filters = current;
+        return filters == null || filters.ids().mightContain(CountingBloomFilter.hash(id));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null
+                || filters.emails().mightContain(CountingBloomFilter.hash(normalize(email)));
+    }
+
+    public void add(Employee employee) {
+        Long id = employee.getId();
+        if (id == null) {
+            return;
+        }
+        String email = employee.getEmail();
+        record(filters -> {
+            filters.ids().add(CountingBloomFilter.hash(id));
+            addEmail(filters, email);
+        });
+    }
+
+    public void addEmail(String email) {
+        if (email != null) {
+            record(filters -> addEmail(filters, email));
+        }
+    }
+
+    //Not applied to a filter that is being rebuilt: its database scan may not have reached the id yet
+    public void removeId(long id) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.ids().remove(CountingBloomFilter.hash(id));
+        }
+    }
+
+    //The filter is sized and published as building before the scan's transaction starts: on MySQL the first
+    //read takes the snapshot, and a row committed after it must still reach the new filter through an add
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!settings.isEnabled()) {
+            current = null;
+            return;
+        }
+        long expected = Math.max(settings.getExpectedInsertions(), employeeRepository.count() * 2);
+        Filters fresh = new Filters(
+                new CountingBloomFilter(expected, settings.getFalsePositiveRate()),
+                new CountingBloomFilter(expected, settings.getFalsePositiveRate()));
+        synchronized (swap) {
+            building = fresh;
+            rebuilds++;
+        }
+        long rows;
+        try {
+            rows = readOnly.execute(status -> scan(fresh));
+            synchronized (swap) {
+                current = fresh;
+            }
+        } finally {
+            synchronized (swap) {
+                building = null;
+            }
+        }
+        lastRebuildRows = rows;
+        lastRebuildAt = Instant.now();
+    }
+
+    private long scan(Filters fresh) {
+        long rows = 0;
+        try (Stream<EmployeeKey> keys = employeeRepository.streamKeysBy()) {
+            for (EmployeeKey key : (Iterable<EmployeeKey>) keys::iterator) {
+                fresh.ids().add(CountingBloomFilter.hash(key.getId()));
+                fresh.emails().add(CountingBloomFilter.hash(normalize(key.getEmail())));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getLastRebuildRows() {
+        return lastRebuildRows;
+    }
+
+    public Instant getLastRebuildAt() {
+        return lastRebuildAt;
+    }
+
+    public long getSizeInBytes() {
+        Filters filters = current;
+        return filters == null ? 0 : filters.ids().getSizeInBytes() + filters.emails().getSizeInBytes();
+    }
+
+    //Applied to the current filter and to one being rebuilt. A rebuild that starts before the caller's
+    //transaction commits may scan without the row, so the add is made again after the commit if one started
+    //in between; adding twice only costs a false positive once the row is removed.
+    private void record(Consumer<Filters> change) {
+        long seen = apply(change);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (swap) {
+                    if (rebuilds != seen) {
+                        apply(change);
+                    }
+                }
+            }
+        });
+    }
+
+    private long apply(Consumer<Filters> change) {
+        synchronized (swap) {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (building != null) {
+                change.accept(building);
+            }
+            return rebuilds;
+        }
+    }
+
+    private static void addEmail(Filters filters, String email) {
+        if (email != null) {
+            filters.emails().add(CountingBloomFilter.hash(normalize(email)));
+        }
+    }
+
+    //MySQL's default collation compares emails case-insensitively, so the filter must too
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(CountingBloomFilter ids, CountingBloomFilter emails) {
+    }
+}
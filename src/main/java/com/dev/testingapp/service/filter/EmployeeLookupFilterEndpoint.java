@@ -0,0 +1,37 @@
+package com.dev.testingapp.service.filter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//GET /actuator/lookupfilter for the filter state, POST to rebuild it from the employees table
+@Component
+@Endpoint(id = "lookupfilter")
+public class EmployeeLookupFilterEndpoint {
+
+    private final EmployeeLookupFilter lookupFilter;
+
+    public EmployeeLookupFilterEndpoint(EmployeeLookupFilter lookupFilter) {
+        this.lookupFilter = lookupFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("ready", lookupFilter.isReady());
+        state.put("rows", lookupFilter.getLastRebuildRows());
+        state.put("rebuiltAt", lookupFilter.getLastRebuildAt());
+        state.put("sizeInBytes", lookupFilter.getSizeInBytes());
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        lookupFilter.rebuild();
+        return state();
+    }
+}
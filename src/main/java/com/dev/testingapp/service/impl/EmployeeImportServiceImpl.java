@@ -0,0 +1,291 @@
+package com.dev.testingapp.service.impl;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.dto.ImportRowError;
+import com.dev.testingapp.exception.InvalidImportException;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeImportService;
+import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.importer.CsvEmployeeLineParser;
+import com.dev.testingapp.service.importer.EmployeeLineParser;
+import com.dev.testingapp.service.importer.EmployeeRowValidator;
+import com.dev.testingapp.service.importer.ImportFormat;
+import com.dev.testingapp.service.importer.NdjsonEmployeeLineParser;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reads the upload line by line and writes it one chunk per transaction, so memory stays at one chunk of
+// rows plus the capped error list whatever the file size. Rows of committed chunks stay imported if a
+// later chunk fails.
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+  private EmployeeRepository employeeRepository;
+  private EmployeeService employeeService;
+  private EntityManager entityManager;
+  private TransactionTemplate transactionTemplate;
+  private EmployeeLookupFilter lookupFilter;
+  private EmployeeSearchIndex searchIndex;
+  private EmployeeChangeFeed changeFeed;
+  private ObjectMapper objectMapper;
+  private EmployeeProperties.BulkImport settings;
+  private int inListSize;
+
+  // insertion ordered, so the oldest report is dropped first
+  private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+  public EmployeeImportServiceImpl(
+      EmployeeRepository employeeRepository,
+      EmployeeService employeeService,
+      EntityManager entityManager,
+      TransactionTemplate transactionTemplate,
+      EmployeeLookupFilter lookupFilter,
+      EmployeeSearchIndex searchIndex,
+      EmployeeChangeFeed changeFeed,
+      ObjectMapper objectMapper,
+      EmployeeProperties properties) {
+    this.employeeRepository = employeeRepository;
+    this.employeeService = employeeService;
+    this.entityManager = entityManager;
+    this.transactionTemplate = transactionTemplate;
+    this.lookupFilter = lookupFilter;
+    this.searchIndex = searchIndex;
+    this.changeFeed = changeFeed;
+    this.objectMapper = objectMapper;
+    this.settings = properties.getBulkImport();
+    this.inListSize = properties.getBatch().getInListSize();
+  }
+
+  @Override
+  public ImportReport importEmployees(InputStream input, ImportFormat format) {
+    ImportJob job = register(new ImportJob(UUID.randomUUID().toString(), settings.getMaxReportedErrors()));
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      EmployeeLineParser parser =
+          format == ImportFormat.NDJSON ? new NdjsonEmployeeLineParser(objectMapper) : null;
+      List<ImportRow> chunk = new ArrayList<>(settings.getChunkSize());
+      long lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (parser == null) {
+          // first CSV line: a header names the columns, anything else is already data
+          parser = csvParser(line);
+          if (parser != null) {
+            continue;
+          }
+          parser = new CsvEmployeeLineParser();
+        }
+
+        job.rowsRead.incrementAndGet();
+        try {
+          Employee employee = parser.parse(line);
+          String invalid = EmployeeRowValidator.validate(employee);
+          if (invalid != null) {
+            job.reject(lineNumber, employee.getEmail(), invalid);
+          } else {
+            chunk.add(new ImportRow(lineNumber, employee));
+          }
+        } catch (IllegalArgumentException e) {
+          job.reject(lineNumber, null, e.getMessage());
+        }
+        if (chunk.size() >= settings.getChunkSize()) {
+          writeChunk(chunk, job);
+          chunk.clear();
+        }
+      }
+      writeChunk(chunk, job);
+      job.finish(ImportReport.Status.COMPLETED);
+    } catch (IOException e) {
+      job.finish(ImportReport.Status.FAILED);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      job.finish(ImportReport.Status.FAILED);
+      throw e;
+    }
+    return job.report();
+  }
+
+  @Override
+  public Optional<ImportReport> getImport(String id) {
+    synchronized (jobs) {
+      return Optional.ofNullable(jobs.get(id)).map(ImportJob::report);
+    }
+  }
+
+  @Override
+  public List<ImportReport> getImports() {
+    synchronized (jobs) {
+      return jobs.values().stream().map(ImportJob::report).toList();
+    }
+  }
+
+  private void writeChunk(List<ImportRow> chunk, ImportJob job) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    // duplicates inside the chunk; those of earlier chunks are committed by now and found below
+    Map<String, ImportRow> byEmail = new LinkedHashMap<>();
+    for (ImportRow row : chunk) {
+      if (byEmail.putIfAbsent(row.employee().getEmail(), row) != null) {
+        job.reject(row.line(), row.employee().getEmail(), "Duplicate email in the import");
+      }
+    }
+
+    List<String> candidates =
+        byEmail.keySet().stream().filter(lookupFilter::mightContainEmail).toList();
+    Set<String> existing = new HashSet<>();
+    for (int from = 0; from < candidates.size(); from += inListSize) {
+      existing.addAll(
+          employeeRepository.findExistingEmails(
+              candidates.subList(from, Math.min(from + inListSize, candidates.size()))));
+    }
+    List<ImportRow> rows = new ArrayList<>(byEmail.size());
+    for (ImportRow row : byEmail.values()) {
+      if (existing.contains(row.employee().getEmail())) {
+        job.reject(
+            row.line(),
+            row.employee().getEmail(),
+            "An employee already exist with email: " + row.employee().getEmail());
+      } else {
+        rows.add(row);
+      }
+    }
+
+    List<Employee> employees = rows.stream().map(ImportRow::employee).toList();
+    if (employees.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            employeeRepository.saveAll(employees);
+            employeeRepository.flush();
+            entityManager.clear();
+          });
+    } catch (DataIntegrityViolationException e) {
+      // a concurrent write or a value the database refused: redo the chunk row by row to find it
+      writeRowByRow(rows, job);
+      return;
+    }
+    employees.forEach(lookupFilter::add);
+    employees.forEach(searchIndex::add);
+    changeFeed.created(employees);
+    job.imported.addAndGet(employees.size());
+  }
+
+  private void writeRowByRow(List<ImportRow> rows, ImportJob job) {
+    for (ImportRow row : rows) {
+      Employee employee = row.employee();
+      try {
+        // the rolled back batch left ids on these instances
+        employeeService.saveEmployee(
+            Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build());
+        job.imported.incrementAndGet();
+      } catch (ResourceNotFoundException | DataIntegrityViolationException e) {
+        job.reject(row.line(), employee.getEmail(), e.getMessage());
+      }
+    }
+  }
+
+  private ImportJob register(ImportJob job) {
+    synchronized (jobs) {
+      jobs.put(job.id, job);
+      // drop the oldest finished reports beyond the retention limit
+      jobs.values()
+          .removeIf(
+              old ->
+                  jobs.size() > settings.getRetainedReports()
+                      && old.status != ImportReport.Status.RUNNING);
+    }
+    return job;
+  }
+
+  private static CsvEmployeeLineParser csvParser(String header) {
+    try {
+      return CsvEmployeeLineParser.fromHeader(header);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidImportException(e.getMessage(), e);
+    }
+  }
+
+  private record ImportRow(long line, Employee employee) {}
+
+  private static final class ImportJob {
+    private final String id;
+    private final int maxReportedErrors;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportRowError> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile ImportReport.Status status = ImportReport.Status.RUNNING;
+    private volatile Instant finishedAt;
+
+    private ImportJob(String id, int maxReportedErrors) {
+      this.id = id;
+      this.maxReportedErrors = maxReportedErrors;
+    }
+
+    private void reject(long line, String email, String message) {
+      if (failed.incrementAndGet() <= maxReportedErrors) {
+        errors.add(new ImportRowError(line, email, message));
+      }
+    }
+
+    private void finish(ImportReport.Status status) {
+      this.finishedAt = Instant.now();
+      this.status = status;
+    }
+
+    private ImportReport report() {
+      List<ImportRowError> snapshot;
+      synchronized (errors) {
+        snapshot = List.copyOf(errors);
+      }
+      return new ImportReport(
+          id,
+          status,
+          rowsRead.get(),
+          imported.get(),
+          failed.get(),
+          snapshot,
+          startedAt,
+          finishedAt);
+    }
+  }
+}
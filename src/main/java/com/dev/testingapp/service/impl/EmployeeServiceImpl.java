@@ -1,33 +1,166 @@
 package com.dev.testingapp.service.impl;
 
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.exception.LookupTooLargeException;
 import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.VersionConflictException;
 import com.dev.testingapp.model.Employee;
 import com.dev.testingapp.repository.EmployeeRepository;
 import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.loader.CoalescingEmployeeLoader;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
+// The employees cache holds detached copies and hands out copies, so a caller that changes an employee
+// it was given changes neither the cached one nor what other callers read. A copy only replaces an older
+// version, and a deleted employee stays cached as a tombstone, so a reader that loaded a row before a
+// write cannot put the stale row back once the write has committed.
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+  public static final String EMPLOYEE_CACHE = "employees";
+
+  // the version of a tombstone, above any real one; ids come from a sequence, so a deleted id never
+  // comes back
+  private static final long DELETED = Long.MAX_VALUE;
+
   private EmployeeRepository employeeRepository;
+  private EntityManager entityManager;
+  private EmployeeProperties properties;
+  private EmployeeLookupFilter lookupFilter;
+  private CacheManager cacheManager;
+  private EmployeeSearchIndex searchIndex;
+  private CoalescingEmployeeLoader employeeLoader;
+  private EmployeeResponseCache responseCache;
+  private EmployeeChangeFeed changeFeed;
 
-  public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+  public EmployeeServiceImpl(
+      EmployeeRepository employeeRepository,
+      EntityManager entityManager,
+      EmployeeProperties properties,
+      EmployeeLookupFilter lookupFilter,
+      CacheManager cacheManager,
+      EmployeeSearchIndex searchIndex,
+      CoalescingEmployeeLoader employeeLoader,
+      EmployeeResponseCache responseCache,
+      EmployeeChangeFeed changeFeed) {
     this.employeeRepository = employeeRepository;
+    this.entityManager = entityManager;
+    this.properties = properties;
+    this.lookupFilter = lookupFilter;
+    this.cacheManager = cacheManager;
+    this.searchIndex = searchIndex;
+    this.employeeLoader = employeeLoader;
+    this.responseCache = responseCache;
+    this.changeFeed = changeFeed;
   }
 
   @Override
   public Employee saveEmployee(Employee employee) {
+    // a single INSERT; the unique index on email rejects duplicates, even concurrent ones. An id or
+    // version sent by the client is dropped, as in saveEmployees, or the save would merge into that row.
+    try {
+      Employee saved = employeeRepository.saveAndFlush(newEmployee(employee));
+      lookupFilter.add(saved);
+      searchIndex.add(saved);
+      changeFeed.created(saved);
+      cache(saved);
+      return saved;
+    } catch (DataIntegrityViolationException e) {
+      if (isDuplicateEmail(e)) {
+        throw new ResourceNotFoundException(
+            "An employee already exist with email: " + employee.getEmail(), e);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  @Transactional
+  public List<Employee> saveEmployees(List<Employee> submitted) {
+    // ids and versions sent by the client are dropped: with them saveAll would merge into existing
+    // rows instead of inserting, past the email checks and outside the insert batches
+    List<Employee> employees = submitted.stream().map(EmployeeServiceImpl::newEmployee).toList();
+    Set<String> emails = new HashSet<>();
+    for (Employee employee : employees) {
+      if (!emails.add(employee.getEmail())) {
+        throw new ResourceNotFoundException(
+            "An employee already exist with email: " + employee.getEmail());
+      }
+    }
 
-    Optional<Employee> saveEmployee = employeeRepository.findByEmail(employee.getEmail());
-    if (saveEmployee.isPresent()) {
-      throw new ResourceNotFoundException(
-          "An employee already exist with email: " + employee.getEmail());
+    // only emails the lookup filter cannot rule out need a database check
+    List<String> requested = emails.stream().filter(lookupFilter::mightContainEmail).toList();
+    int inListSize = properties.getBatch().getInListSize();
+    for (int from = 0; from < requested.size(); from += inListSize) {
+      List<String> existing =
+          employeeRepository.findExistingEmails(
+              requested.subList(from, Math.min(from + inListSize, requested.size())));
+      if (!existing.isEmpty()) {
+        throw new ResourceNotFoundException(
+            "An employee already exist with email: " + existing.get(0));
+      }
     }
 
-    return employeeRepository.save(employee);
+    // ids come from the pooled sequence, so each flush goes out as one JDBC insert batch
+    int batchSize = properties.getBatch().getSize();
+    List<Employee> saved = new ArrayList<>(employees.size());
+    for (int from = 0; from < employees.size(); from += batchSize) {
+      saved.addAll(
+          employeeRepository.saveAll(
+              employees.subList(from, Math.min(from + batchSize, employees.size()))));
+      try {
+        employeeRepository.flush();
+      } catch (DataIntegrityViolationException e) {
+        // lost a race with a concurrent create after the existence check
+        if (isDuplicateEmail(e)) {
+          throw new ResourceNotFoundException(
+              "An employee already exist with one of the submitted emails", e);
+        }
+        throw e;
+      }
+      entityManager.clear();
+    }
+    saved.forEach(lookupFilter::add);
+    saved.forEach(searchIndex::add);
+    // published when the transaction commits
+    changeFeed.created(saved);
+    return saved;
   }
 
   @Override
@@ -35,18 +168,388 @@ public class EmployeeServiceImpl implements EmployeeService {
     return employeeRepository.findAll();
   }
 
+  @Override
+  public CursorPage<Employee> getEmployeePage(String after, int limit) {
+    int pageSize = pageSize(limit);
+    // fetch one extra row to learn whether another page exists without a count query
+    List<Employee> rows =
+        employeeRepository.findByIdGreaterThanOrderByIdAsc(
+            afterId(after), PageRequest.of(0, pageSize + 1));
+    return toPage(rows, pageSize, Employee::getId);
+  }
+
+  @Override
+  public CursorPage<EmployeeView> getEmployeeViewPage(
+      String after, int limit, Set<EmployeeField> fields) {
+    int pageSize = pageSize(limit);
+    // the view rows always carry the id, which the cursor needs; only requested fields are returned
+    CursorPage<EmployeeView> page =
+        toPage(
+            employeeRepository.findViewsByIdGreaterThan(afterId(after), pageSize + 1, fields),
+            pageSize,
+            EmployeeView::id);
+    return new CursorPage<>(
+        page.content().stream().map(view -> view.only(fields)).toList(), page.nextCursor());
+  }
+
+  @Override
+  public CursorPage<Employee> getEmployeesByName(
+      String firstName, String lastName, String after, int limit) {
+    int pageSize = pageSize(limit);
+    List<Employee> rows =
+        employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+            firstName, lastName, afterId(after), PageRequest.of(0, pageSize + 1));
+    return toPage(rows, pageSize, Employee::getId);
+  }
+
+  @Override
+  public CursorPage<Employee> getEmployeesByNames(
+      Collection<EmployeeName> names, String after, int limit) {
+    List<EmployeeName> distinct = names.stream().distinct().toList();
+    int maxLookupNames = properties.getBatch().getMaxLookupNames();
+    if (distinct.size() > maxLookupNames) {
+      throw new LookupTooLargeException(
+          "At most " + maxLookupNames + " names can be looked up at once, got " + distinct.size());
+    }
+    int pageSize = pageSize(limit);
+    List<Employee> rows = employeeRepository.findByNameIn(distinct, afterId(after), pageSize + 1);
+    return toPage(rows, pageSize, Employee::getId);
+  }
+
+  @Override
+  public List<EmployeeSuggestion> searchEmployees(String prefix, int limit) {
+    int maxResults = properties.getSearch().getMaxResults();
+    return searchIndex.search(prefix, Math.min(limit, maxResults));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportEmployees(Consumer<Employee> sink) {
+    long count = 0;
+    try (Stream<Employee> employees = employeeRepository.streamAllByOrderByIdAsc()) {
+      Iterator<Employee> iterator = employees.iterator();
+      while (iterator.hasNext()) {
+        sink.accept(iterator.next());
+        // drop exported rows from the persistence context so it stays one fetch chunk wide
+        if (++count % EmployeeRepository.EXPORT_FETCH_SIZE == 0) {
+          entityManager.clear();
+        }
+      }
+    }
+    return count;
+  }
+
   @Override
   public Optional<Employee> getEmployeeById(long id) {
-    return employeeRepository.findById(id);
+    Cache cache = cacheManager.getCache(EMPLOYEE_CACHE);
+    Employee cached = cache == null ? null : cache.get(id, Employee.class);
+    if (cached != null) {
+      return isDeleted(cached) ? Optional.empty() : Optional.of(copy(cached));
+    }
+    if (!lookupFilter.mightContainId(id)) {
+      return Optional.empty();
+    }
+    Optional<Employee> loaded =
+        properties.getCoalescing().isEnabled()
+            ? employeeLoader.load(id)
+            : employeeRepository.findById(id);
+    loaded.ifPresent(this::cache);
+    return loaded;
   }
 
+  // a cached employee is cut down in memory, otherwise only the requested columns are read
+  @Override
+  public Optional<EmployeeView> getEmployeeViewById(long id, Set<EmployeeField> fields) {
+    if (!lookupFilter.mightContainId(id)) {
+      return Optional.empty();
+    }
+    Cache cache = cacheManager.getCache(EMPLOYEE_CACHE);
+    Employee cached = cache == null ? null : cache.get(id, Employee.class);
+    if (cached != null) {
+      return isDeleted(cached) ? Optional.empty() : Optional.of(EmployeeView.of(cached, fields));
+    }
+    return employeeRepository.findViewById(id, fields).map(view -> view.only(fields));
+  }
+
+  // in request order, without the ids that do not exist; cached rows skip the query, loaded ones are cached
+  @Override
+  public List<Employee> getEmployeesByIds(Collection<Long> ids) {
+    List<Long> distinct = ids.stream().distinct().toList();
+    int maxLookupIds = properties.getBatch().getMaxLookupIds();
+    if (distinct.size() > maxLookupIds) {
+      throw new LookupTooLargeException(
+          "At most " + maxLookupIds + " ids can be looked up at once, got " + distinct.size());
+    }
+    Cache cache = cacheManager.getCache(EMPLOYEE_CACHE);
+    Map<Long, Employee> found = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : distinct) {
+      Employee cached = cache == null ? null : cache.get(id, Employee.class);
+      if (cached != null) {
+        if (!isDeleted(cached)) {
+          found.put(id, copy(cached));
+        }
+      } else if (lookupFilter.mightContainId(id)) {
+        missing.add(id);
+      }
+    }
+
+    int inListSize = properties.getBatch().getInListSize();
+    for (int from = 0; from < missing.size(); from += inListSize) {
+      for (Employee employee :
+          employeeRepository.findAllById(
+              missing.subList(from, Math.min(from + inListSize, missing.size())))) {
+        found.put(employee.getId(), employee);
+        cache(employee);
+      }
+    }
+    return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+  }
+
+  // a failed save may be a conflict with a newer version, so the cached one is dropped first
   @Override
   public Employee updateEmployee(Employee employee) {
-    return employeeRepository.save(employee);
+    evictCached(employee.getId());
+    Employee updated;
+    try {
+      updated = employeeRepository.save(employee);
+    } catch (OptimisticLockingFailureException e) {
+      throw new VersionConflictException(
+          "Employee " + employee.getId() + " was modified concurrently", e);
+    }
+    // the id is already known; only a changed email is new
+    lookupFilter.addEmail(updated.getEmail());
+    responseCache.evict(updated.getId());
+    searchIndex.add(updated);
+    changeFeed.updated(updated);
+    afterCommit(() -> cache(updated));
+    return updated;
+  }
+
+  @Override
+  @Transactional
+  public Optional<Employee> patchEmployee(long id, EmployeePatch patch) {
+    evictCached(id);
+    if (!lookupFilter.mightContainId(id)) {
+      return Optional.empty();
+    }
+    if (!patch.hasChanges()) {
+      // nothing to write, but a stale version is still a conflict
+      Optional<Employee> current = employeeRepository.findById(id);
+      if (patch.version() != null
+          && current.isPresent()
+          && !patch.version().equals(current.get().getVersion())) {
+        throw new VersionConflictException(
+            "Employee " + id + " is no longer at version " + patch.version());
+      }
+      return current;
+    }
+
+    int updated;
+    try {
+      updated = employeeRepository.patch(id, patch);
+    } catch (DataIntegrityViolationException e) {
+      if (isDuplicateEmail(e)) {
+        throw new ResourceNotFoundException(
+            "An employee already exist with email: " + patch.email(), e);
+      }
+      throw e;
+    }
+    if (updated == 0) {
+      // the conditional UPDATE matched nothing: tell a stale version apart from a missing row
+      if (patch.version() != null && employeeRepository.existsById(id)) {
+        throw new VersionConflictException(
+            "Employee " + id + " is no longer at version " + patch.version());
+      }
+      return Optional.empty();
+    }
+    if (patch.email() != null) {
+      lookupFilter.addEmail(patch.email());
+    }
+    responseCache.evict(id);
+    Optional<Employee> patched = employeeRepository.findById(id);
+    patched.ifPresent(searchIndex::add);
+    patched.ifPresent(changeFeed::updated);
+    // put once committed: until then concurrent readers load the old row, and a rollback keeps it
+    patched.ifPresent(employee -> afterCommit(() -> cache(employee)));
+    return patched;
+  }
+
+  @Override
+  public boolean deletedEmployee(long id) {
+    int deleted = employeeRepository.deleteEmployeeById(id);
+    evictCached(id);
+    if (deleted == 0) {
+      return false;
+    }
+    responseCache.evict(id);
+    lookupFilter.removeId(id);
+    searchIndex.remove(id);
+    changeFeed.deleted(id);
+    afterCommit(() -> tombstone(id));
+    return true;
+  }
+
+  @Override
+  public boolean deletedEmployee(long id, long version) {
+    int deleted = employeeRepository.deleteEmployeeByIdAndVersion(id, version);
+    evictCached(id);
+    if (deleted == 0) {
+      if (employeeRepository.existsById(id)) {
+        throw new VersionConflictException(
+            "Employee " + id + " is no longer at version " + version);
+      }
+      return false;
+    }
+    responseCache.evict(id);
+    lookupFilter.removeId(id);
+    searchIndex.remove(id);
+    changeFeed.deleted(id);
+    afterCommit(() -> tombstone(id));
+    return true;
   }
 
   @Override
-  public void deletedEmployee(long id) {
-    employeeRepository.deleteById(id);
+  @Transactional
+  public long deleteEmployees(Collection<Long> ids) {
+    List<Long> distinct = ids.stream().distinct().toList();
+    int inListSize = properties.getBatch().getInListSize();
+    // only the rows that exist are deleted, announced and evicted; they stay locked until commit, so a
+    // concurrent delete of the same ids does not announce them again
+    List<Long> deleted = new ArrayList<>();
+    for (int from = 0; from < distinct.size(); from += inListSize) {
+      List<Long> existing =
+          employeeRepository.findExistingIdsForUpdate(
+              distinct.subList(from, Math.min(from + inListSize, distinct.size())));
+      if (!existing.isEmpty()) {
+        employeeRepository.deleteEmployeesByIdIn(existing);
+        deleted.addAll(existing);
+      }
+    }
+
+    evictAfterCommit(
+        () -> {
+          deleted.forEach(searchIndex::remove);
+          deleted.forEach(responseCache::evict);
+        });
+    deleted.forEach(this::evictCached);
+    afterCommit(() -> deleted.forEach(this::tombstone));
+    deleted.forEach(lookupFilter::removeId);
+    changeFeed.deleted(deleted);
+    return deleted.size();
+  }
+
+  // run now, so the rest of the transaction no longer sees the rows, and again once it commits: until
+  // then concurrent readers still see the committed rows and may cache or index them again
+  private static void evictAfterCommit(Runnable eviction) {
+    eviction.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              eviction.run();
+            }
+          });
+    }
+  }
+
+  // once the transaction commits, or now without one
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+
+  // keeps whichever of the cached and the given copy has the higher version
+  private void cache(Employee employee) {
+    Cache cache = cacheManager.getCache(EMPLOYEE_CACHE);
+    if (cache == null) {
+      return;
+    }
+    Employee copy = copy(employee);
+    if (cache instanceof CaffeineCache caffeine) {
+      caffeine
+          .getNativeCache()
+          .asMap()
+          .merge(
+              copy.getId(),
+              copy,
+              (cached, loaded) -> version(cached) >= version(loaded) ? cached : loaded);
+    } else {
+      cache.put(copy.getId(), copy);
+    }
+  }
+
+  private void tombstone(Long id) {
+    cache(Employee.builder().id(id).version(DELETED).build());
+  }
+
+  private static boolean isDeleted(Employee cached) {
+    return version(cached) == DELETED;
+  }
+
+  private static long version(Object cached) {
+    return Objects.requireNonNullElse(((Employee) cached).getVersion(), -1L);
+  }
+
+  private void evictCached(Long id) {
+    Cache cache = cacheManager.getCache(EMPLOYEE_CACHE);
+    if (cache != null && id != null) {
+      cache.evict(id);
+    }
+  }
+
+  private static Employee copy(Employee employee) {
+    return Employee.builder()
+        .id(employee.getId())
+        .firstName(employee.getFirstName())
+        .lastName(employee.getLastName())
+        .email(employee.getEmail())
+        .version(employee.getVersion())
+        .build();
+  }
+
+  private static Employee newEmployee(Employee employee) {
+    return Employee.builder()
+        .firstName(employee.getFirstName())
+        .lastName(employee.getLastName())
+        .email(employee.getEmail())
+        .build();
+  }
+
+  private int pageSize(int limit) {
+    return Math.max(1, Math.min(limit, properties.getPage().getMaxSize()));
+  }
+
+  private static long afterId(String after) {
+    return after == null || after.isEmpty() ? 0L : CursorPage.decodeCursor(after);
+  }
+
+  // rows holds up to one row more than the page, telling whether another page follows
+  private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, ToLongFunction<T> id) {
+    if (rows.size() <= pageSize) {
+      return new CursorPage<>(rows, null);
+    }
+    List<T> content = rows.subList(0, pageSize);
+    return new CursorPage<>(
+        content, CursorPage.encodeCursor(id.applyAsLong(content.get(pageSize - 1))));
+  }
+
+  private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+    return e.getCause() instanceof ConstraintViolationException violation
+        && violation.getConstraintName() != null
+        && violation
+            .getConstraintName()
+            .toLowerCase(Locale.ROOT)
+            .contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
   }
 }
@@ -0,0 +1,173 @@
+package com.dev.testingapp.service.impl;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.VersionConflictException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.ReactiveEmployeeRepository;
+import com.dev.testingapp.service.ReactiveEmployeeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Only the database: no employees cache, lookup filter, search index or change feed. Those are per
+// instance and kept in step by EmployeeServiceImpl's writes, which this variant does not make, so the
+// reactive application serves no /search or /changes and must not share them with a servlet instance.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+  private ReactiveEmployeeRepository employeeRepository;
+  private TransactionalOperator transactionalOperator;
+  private EmployeeProperties properties;
+
+  public ReactiveEmployeeServiceImpl(
+      ReactiveEmployeeRepository employeeRepository,
+      TransactionalOperator transactionalOperator,
+      EmployeeProperties properties) {
+    this.employeeRepository = employeeRepository;
+    this.transactionalOperator = transactionalOperator;
+    this.properties = properties;
+  }
+
+  @Override
+  public Mono<Employee> saveEmployee(Employee employee) {
+    return employeeRepository
+        .insert(employee)
+        .as(transactionalOperator::transactional)
+        .onErrorMap(
+            ReactiveEmployeeServiceImpl::isDuplicateEmail,
+            e ->
+                new ResourceNotFoundException(
+                    "An employee already exist with email: " + employee.getEmail(), e));
+  }
+
+  @Override
+  public Flux<Employee> saveEmployees(List<Employee> employees) {
+    Set<String> emails = new HashSet<>();
+    for (Employee employee : employees) {
+      if (!emails.add(employee.getEmail())) {
+        return Flux.error(
+            new ResourceNotFoundException(
+                "An employee already exist with email: " + employee.getEmail()));
+      }
+    }
+    // all or nothing: the unique index rejects an existing email and rolls back the whole batch
+    return Flux.fromIterable(employees)
+        .concatMap(employeeRepository::insert)
+        .as(transactionalOperator::transactional)
+        .onErrorMap(
+            ReactiveEmployeeServiceImpl::isDuplicateEmail,
+            e ->
+                new ResourceNotFoundException(
+                    "An employee already exist with one of the submitted emails", e));
+  }
+
+  @Override
+  public Flux<Employee> getAllEmployees() {
+    return employeeRepository.findAllByOrderByIdAsc();
+  }
+
+  @Override
+  public Mono<CursorPage<Employee>> getEmployeePage(String after, int limit) {
+    return Mono.defer(
+        () -> {
+          int pageSize = Math.max(1, Math.min(limit, properties.getPage().getMaxSize()));
+          long afterId = after == null || after.isEmpty() ? 0L : CursorPage.decodeCursor(after);
+
+          // one extra row tells whether another page exists, as in EmployeeServiceImpl
+          return employeeRepository
+              .findByIdGreaterThanOrderByIdAsc(afterId, pageSize + 1)
+              .collectList()
+              .map(
+                  rows -> {
+                    if (rows.size() <= pageSize) {
+                      return new CursorPage<>(rows, null);
+                    }
+                    List<Employee> content = rows.subList(0, pageSize);
+                    return new CursorPage<>(
+                        content, CursorPage.encodeCursor(content.get(pageSize - 1).getId()));
+                  });
+        });
+  }
+
+  @Override
+  public Mono<Employee> getEmployeeById(long id) {
+    return employeeRepository.findById(id);
+  }
+
+  @Override
+  public Mono<Employee> patchEmployee(long id, EmployeePatch patch) {
+    if (!patch.hasChanges()) {
+      return employeeRepository.findById(id);
+    }
+    return employeeRepository
+        .patch(id, patch)
+        .flatMap(
+            updated -> {
+              if (updated > 0) {
+                return employeeRepository.findById(id);
+              }
+              // the conditional UPDATE matched nothing: tell a stale version apart from a missing row
+              if (patch.version() == null) {
+                return Mono.<Employee>empty();
+              }
+              return employeeRepository
+                  .existsById(id)
+                  .flatMap(
+                      exists ->
+                          exists
+                              ? Mono.<Employee>error(
+                                  new VersionConflictException(
+                                      "Employee "
+                                          + id
+                                          + " is no longer at version "
+                                          + patch.version()))
+                              : Mono.<Employee>empty());
+            })
+        .as(transactionalOperator::transactional)
+        .onErrorMap(
+            ReactiveEmployeeServiceImpl::isDuplicateEmail,
+            e ->
+                new ResourceNotFoundException(
+                    "An employee already exist with email: " + patch.email(), e));
+  }
+
+  @Override
+  public Mono<Boolean> deletedEmployee(long id) {
+    return employeeRepository.deleteById(id).map(deleted -> deleted > 0);
+  }
+
+  @Override
+  public Mono<Long> deleteEmployees(Collection<Long> ids) {
+    List<Long> distinct = ids.stream().distinct().toList();
+    int inListSize = properties.getBatch().getInListSize();
+    return Flux.range(0, (distinct.size() + inListSize - 1) / inListSize)
+        .concatMap(
+            chunk ->
+                employeeRepository.deleteByIdIn(
+                    distinct.subList(
+                        chunk * inListSize,
+                        Math.min((chunk + 1) * inListSize, distinct.size()))))
+        .reduce(0L, Long::sum)
+        .as(transactionalOperator::transactional);
+  }
+
+  // R2DBC drivers expose no constraint name, so match it in the driver's message
+  private static boolean isDuplicateEmail(Throwable e) {
+    return e instanceof DataIntegrityViolationException
+        && e.getMessage() != null
+        && e.getMessage().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+  }
+}
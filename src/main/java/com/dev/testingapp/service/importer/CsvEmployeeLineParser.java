@@ -0,0 +1,96 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Comma separated firstName,lastName,email. An optional header line may name the columns in any order
+//(firstName or first_name, ...); extra columns are ignored. Fields may be double-quoted with "" as an
+//escaped quote, but may not span lines.
+public class CsvEmployeeLineParser implements EmployeeLineParser {
+
+    private final int firstNameColumn;
+    private final int lastNameColumn;
+    private final int emailColumn;
+
+    public CsvEmployeeLineParser() {
+        this(0, 1, 2);
+    }
+
+    private CsvEmployeeLineParser(int firstNameColumn, int lastNameColumn, int emailColumn) {
+        this.firstNameColumn = firstNameColumn;
+        this.lastNameColumn = lastNameColumn;
+        this.emailColumn = emailColumn;
+    }
+
+    //A parser for the columns a header line names, or null when the line is a data row
+    public static CsvEmployeeLineParser fromHeader(String line) {
+        List<String> names = split(line);
+        int firstName = -1;
+        int lastName = -1;
+        int email = -1;
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT)) {
+                case "firstname" -> firstName = i;
+                case "lastname" -> lastName = i;
+                case "email" -> email = i;
+                default -> {
+                }
+            }
+        }
+        if (firstName < 0 && lastName < 0 && email < 0) {
+            return null;
+        }
+        if (firstName < 0 || lastName < 0 || email < 0) {
+            throw new IllegalArgumentException("CSV header must name firstName, lastName and email columns: " + line);
+        }
+        return new CsvEmployeeLineParser(firstName, lastName, email);
+    }
+
+    @Override
+    public Employee parse(String line) {
+        List<String> fields = split(line);
+        int columns = Math.max(firstNameColumn, Math.max(lastNameColumn, emailColumn)) + 1;
+        if (fields.size() < columns) {
+            throw new IllegalArgumentException("Expected at least " + columns + " columns, found " + fields.size());
+        }
+        return Employee.builder()
+                .firstName(fields.get(firstNameColumn).trim())
+                .lastName(fields.get(lastNameColumn).trim())
+                .email(fields.get(emailColumn).trim())
+                .build();
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
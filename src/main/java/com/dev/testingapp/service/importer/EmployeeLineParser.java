@@ -0,0 +1,9 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+
+//Turns one line of an upload into a new, unsaved Employee; throws IllegalArgumentException with a
+//message fit for the import report when the line is malformed
+public interface EmployeeLineParser {
+    Employee parse(String line);
+}
@@ -0,0 +1,36 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+
+//Checks a new employee before it is queued for insertion, so rows are refused with a reason instead of
+//failing the database constraints of a whole batch. PUT checks its replacement employee the same way.
+public final class EmployeeRowValidator {
+
+    public static final int MAX_COLUMN_LENGTH = 255;
+
+    private EmployeeRowValidator() {
+    }
+
+    //Why the employee cannot be inserted, or null when it can
+    public static String validate(Employee employee) {
+        String missing = isBlank(employee.getFirstName()) ? "firstName"
+                : isBlank(employee.getLastName()) ? "lastName"
+                : isBlank(employee.getEmail()) ? "email" : null;
+        if (missing != null) {
+            return missing + " is required";
+        }
+        if (employee.getFirstName().length() > MAX_COLUMN_LENGTH
+                || employee.getLastName().length() > MAX_COLUMN_LENGTH
+                || employee.getEmail().length() > MAX_COLUMN_LENGTH) {
+            return "Fields may not be longer than " + MAX_COLUMN_LENGTH + " characters";
+        }
+        if (employee.getEmail().indexOf('@') <= 0) {
+            return "Invalid email: " + employee.getEmail();
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
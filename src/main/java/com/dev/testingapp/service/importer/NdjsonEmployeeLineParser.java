@@ -0,0 +1,40 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.util.Locale;
+
+//One JSON object per line, with the same fields as POST /api/employees; id and version are ignored
+public class NdjsonEmployeeLineParser implements EmployeeLineParser {
+
+    private final ObjectReader reader;
+
+    public NdjsonEmployeeLineParser(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(Employee.class);
+    }
+
+    @Override
+    public Employee parse(String line) {
+        Employee employee;
+        try {
+            //a null, array or scalar line is valid JSON but not an employee
+            JsonNode node = reader.readTree(line);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Malformed JSON: expected an object, got "
+                        + (node == null ? "nothing" : node.getNodeType().toString().toLowerCase(Locale.ROOT)));
+            }
+            employee = reader.treeToValue(node, Employee.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+}
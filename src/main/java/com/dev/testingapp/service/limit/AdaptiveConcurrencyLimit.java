@@ -0,0 +1,101 @@
+package com.dev.testingapp.service.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//How many requests may run at once, adjusted from their latency like Netflix's gradient limit. A short and a
+//long moving average of the latency are kept. While the short one stays within tolerance times the long one,
+//each sample moves the limit a fifth of the way towards itself plus its square root. Beyond that the target
+//shrinks in proportion, to half the limit at most. Samples taken while less than half the limit is in use say
+//nothing about the limit and only move the averages. A failed request cuts the limit by a tenth, as AIMD does
+//on loss.
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    //estimate, shortRtt and longRtt are guarded by this; limit is estimate rounded down, read without the lock
+    private double estimate;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.estimate = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimate;
+    }
+
+    //Takes a slot, or returns false when the limit is reached; a taken slot must be given back by exactly
+    //one of onSuccess, onFailure or onIgnore
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        int wasInFlight = inFlight.getAndDecrement();
+        sample(latencyNanos, wasInFlight);
+    }
+
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            update(estimate * BACKOFF);
+        }
+    }
+
+    //gives the slot back without a sample, for requests whose duration says nothing about load
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long latencyNanos, int wasInFlight) {
+        double rtt = Math.max(1, latencyNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) * 2 / (SHORT_WINDOW + 1);
+            longRtt += (rtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        //after a slow episode the long average comes down faster, or the limit would grow back too early
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (wasInFlight < estimate / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = estimate * gradient + Math.sqrt(estimate);
+        update(estimate * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private void update(double newEstimate) {
+        estimate = Math.min(maxLimit, Math.max(minLimit, newEstimate));
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,82 @@
+package com.dev.testingapp.service.limit;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+//Token buckets per client, one for each budget, in a bounded Caffeine map that drops the least recently seen
+//and idle clients. A bucket is kept as the generic cell rate algorithm's theoretical arrival time: the moment
+//it would be full again if nothing else were taken. Taking tokens is one compare-and-set on that time, so
+//clients never wait on each other or on a lock.
+public class ClientRateLimiter {
+
+    public enum Budget {
+        READS, LISTS, WRITES
+    }
+
+    //limit is the bucket's capacity; reset is the seconds until it is full again, retryAfter the seconds
+    //until the refused request would be allowed (0 when allowed)
+    public record Decision(boolean allowed, int limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    private final Cache<String, AtomicLongArray> clients;
+    private final int[] capacities = new int[Budget.values().length];
+    private final long[] tokenNanos = new long[Budget.values().length];
+    private final LongSupplier nanoClock;
+    //the clock reads after this, so a new client's arrival times of 0 are in the past
+    private final long origin;
+
+    public ClientRateLimiter(EmployeeProperties.RateLimit settings, LongSupplier nanoClock) {
+        bucket(Budget.READS, settings.getReads());
+        bucket(Budget.LISTS, settings.getLists());
+        bucket(Budget.WRITES, settings.getWrites());
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxClients())
+                .expireAfterAccess(settings.getIdleTimeout())
+                .build();
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong() - 1;
+    }
+
+    private void bucket(Budget budget, EmployeeProperties.RateLimit.Bucket settings) {
+        capacities[budget.ordinal()] = Math.max(1, settings.getCapacity());
+        tokenNanos[budget.ordinal()] = Math.max(1, (long) (1_000_000_000L / settings.getPerSecond()));
+    }
+
+    //Takes cost tokens from the client's bucket for this budget, or none when it has fewer; a cost above the
+    //capacity takes the whole bucket
+    public Decision tryAcquire(String client, Budget budget, int cost) {
+        AtomicLongArray arrivals = clients.get(client, key -> new AtomicLongArray(capacities.length));
+        int i = budget.ordinal();
+        int capacity = capacities[i];
+        long interval = tokenNanos[i];
+        long burst = capacity * interval;
+        long charge = Math.min(Math.max(1, cost), capacity) * interval;
+
+        while (true) {
+            long now = nanoClock.getAsLong() - origin;
+            long arrival = arrivals.get(i);
+            long next = Math.max(arrival, now) + charge;
+            //time until the bucket is full again, if this request were allowed
+            long debt = next - now;
+            if (debt > burst) {
+                return new Decision(false, capacity, (burst - (Math.max(arrival, now) - now)) / interval,
+                        seconds(Math.max(arrival, now) - now), seconds(debt - burst));
+            }
+            if (arrivals.compareAndSet(i, arrival, next)) {
+                return new Decision(true, capacity, (burst - debt) / interval, seconds(debt), 0);
+            }
+        }
+    }
+
+    public long clients() {
+        return clients.estimatedSize();
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + 999_999_999) / 1_000_000_000;
+    }
+}
@@ -0,0 +1,153 @@
+package com.dev.testingapp.service.loader;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+//Merges concurrent single-id lookups into one IN query, DataLoader style. Callers asking for an id that is
+//already being loaded share that load. Otherwise the first caller of a batch leads it: when other loads are
+//in flight it waits up to the window for more ids (or until the batch is full), then runs the query on its
+//own thread and hands every caller its row. A lookup with nothing else in flight is queried at once.
+//The query runs in a read-only transaction and persistence context of its own, never the leader's, and every
+//caller gets its own detached copy of the row.
+@Component
+public class CoalescingEmployeeLoader {
+
+    private final EmployeeRepository employeeRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readOnly;
+    private final EmployeeProperties.Coalescing settings;
+    private final int maxBatchSize;
+
+    private final Map<Long, CompletableFuture<Optional<Employee>>> inFlight = new ConcurrentHashMap<>();
+    private Batch pending;
+
+    public CoalescingEmployeeLoader(EmployeeRepository employeeRepository, EntityManagerFactory entityManagerFactory,
+                                    PlatformTransactionManager transactionManager, EmployeeProperties properties) {
+        this.employeeRepository = employeeRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+        this.settings = properties.getCoalescing();
+        this.maxBatchSize = Math.max(1, Math.min(settings.getMaxBatchSize(), properties.getBatch().getInListSize()));
+    }
+
+    public Optional<Employee> load(long id) {
+        CompletableFuture<Optional<Employee>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> shared = inFlight.putIfAbsent(id, load);
+        if (shared != null) {
+            return join(shared).map(CoalescingEmployeeLoader::copy);
+        }
+
+        Batch batch;
+        boolean leader;
+        synchronized (this) {
+            leader = pending == null;
+            if (leader) {
+                pending = new Batch();
+            }
+            batch = pending;
+            batch.loads.put(id, load);
+            if (batch.loads.size() >= maxBatchSize) {
+                pending = null;
+                batch.full.countDown();
+            }
+        }
+        if (leader) {
+            if (inFlight.size() > 1) {
+                awaitMore(batch);
+            }
+            synchronized (this) {
+                if (pending == batch) {
+                    pending = null;
+                }
+            }
+            dispatch(batch);
+        }
+        return join(load).map(CoalescingEmployeeLoader::copy);
+    }
+
+    private void awaitMore(Batch batch) {
+        try {
+            batch.full.await(settings.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            //dispatch what has been collected; the callers are waiting on it
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            Map<Long, Employee> found = new HashMap<>();
+            for (Employee employee : query(new ArrayList<>(batch.loads.keySet()))) {
+                found.put(employee.getId(), employee);
+            }
+            batch.loads.forEach((id, load) -> load.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.loads.values().forEach(load -> load.completeExceptionally(e));
+        } finally {
+            //later lookups of these ids start a new load, so they see writes made after this one
+            batch.loads.forEach(inFlight::remove);
+        }
+    }
+
+    //REQUIRES_NEW suspends a transaction of the leader's; without one, open-in-view's entity manager is set
+    //aside by hand, since the transaction would otherwise join it and could return its managed instances
+    private List<Employee> query(List<Long> ids) {
+        Object openInView = TransactionSynchronizationManager.isActualTransactionActive()
+                ? null
+                : TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return readOnly.execute(status -> employeeRepository.findAllById(ids));
+        } finally {
+            if (openInView != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, openInView);
+            }
+        }
+    }
+
+    private static Employee copy(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build();
+    }
+
+    private static Optional<Employee> join(CompletableFuture<Optional<Employee>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    //written under the loader's lock until it is closed, then only read by its leader
+    private static final class Batch {
+        private final Map<Long, CompletableFuture<Optional<Employee>>> loads = new HashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dev.testingapp.service.response;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+//Encoded response bodies of single employees, one per content type, so a hot read skips Jackson. Entries are
+//keyed by id and remember the version they were encoded from: a body of another version is never written,
+//and the service evicts the id on every write. Bounded by the total size of the bodies; with off-heap they
+//are held in direct buffers, which the JVM frees once an evicted body is garbage collected.
+@Component
+public class EmployeeResponseCache {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Cache<Long, EncodedEmployee> bodies;
+    private final boolean offHeap;
+
+    public EmployeeResponseCache(EmployeeProperties properties) {
+        EmployeeProperties.ResponseCache settings = properties.getResponseCache();
+        this.offHeap = settings.isOffHeap();
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxSize().toBytes())
+                .weigher((Long id, EncodedEmployee encoded) -> encoded.size())
+                .executor(Runnable::run)
+                .build();
+    }
+
+    //Writes the body stored for this version and content type; false when there is none
+    public boolean writeTo(long id, long version, String contentType, OutputStream out) throws IOException {
+        EncodedEmployee encoded = bodies.getIfPresent(id);
+        if (encoded == null || encoded.version() != version) {
+            return false;
+        }
+        ByteBuffer body = encoded.bodies().get(contentType);
+        if (body == null) {
+            return false;
+        }
+        if (body.hasArray()) {
+            out.write(body.array(), body.arrayOffset(), body.capacity());
+            return true;
+        }
+        //absolute reads, so concurrent writers of the same body never share a position
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, body.capacity())];
+        for (int offset = 0; offset < body.capacity(); offset += chunk.length) {
+            int length = Math.min(chunk.length, body.capacity() - offset);
+            body.get(offset, chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+        return true;
+    }
+
+    //Stores the body next to the other encodings of the same version
+    public void put(long id, long version, String contentType, byte[] body) {
+        ByteBuffer stored = offHeap
+                ? ByteBuffer.allocateDirect(body.length).put(body).flip()
+                : ByteBuffer.wrap(body);
+        //recomputing the entry has Caffeine weigh it again
+        bodies.asMap().compute(id, (key, current) -> {
+            Map<String, ByteBuffer> encodings = new HashMap<>();
+            if (current != null && current.version() == version) {
+                encodings.putAll(current.bodies());
+            }
+            encodings.put(contentType, stored);
+            return new EncodedEmployee(version, Map.copyOf(encodings));
+        });
+    }
+
+    public void evict(long id) {
+        bodies.invalidate(id);
+    }
+
+    public long estimatedSize() {
+        return bodies.estimatedSize();
+    }
+
+    private record EncodedEmployee(long version, Map<String, ByteBuffer> bodies) {
+
+        int size() {
+            return bodies.values().stream().mapToInt(ByteBuffer::capacity).sum();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.dev.testingapp.service.search;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.exception.SearchUnavailableException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+//In-memory type-ahead index over first name, last name, "first last" and email, compared ignoring case and
+//accents. Built from the employees table at startup and kept in step with writes made through this
+//instance; writes made elsewhere are only picked up by a rebuild.
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeProperties.Search settings;
+
+    //writes and the swap of a rebuilt index take this, so a write lands in the index that ends up current
+    private final Object swap = new Object();
+    private volatile Index current;
+    private volatile Index building;
+    private long rebuilds;
+    private volatile long lastRebuildRows;
+    private volatile Instant lastRebuildAt;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, EmployeeProperties properties) {
+        this.employeeRepository = employeeRepository;
+        this.settings = properties.getSearch();
+    }
+
+    //Up to limit employees with a name or email starting with the prefix, in term order
+    public List<EmployeeSuggestion> search(String prefix, int limit) {
+        Index index = current;
+        if (index == null) {
+            throw new SearchUnavailableException(settings.isEnabled()
+                    ? "The employee search index is not built yet"
+                    : "Employee search is disabled");
+        }
+        String term = normalize(prefix);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, EmployeeSuggestion> found = new LinkedHashMap<>();
+        index.postings().scan(term, posting -> {
+            EmployeeSuggestion employee = index.employees().get(posting.id());
+            //postings of deleted employees and of changed names stay until the next rebuild
+            if (employee != null && terms(employee).contains(posting.term())) {
+                found.putIfAbsent(posting.id(), employee);
+            }
+            return found.size() < limit;
+        });
+        return List.copyOf(found.values());
+    }
+
+    public void add(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        EmployeeSuggestion suggestion = EmployeeSuggestion.of(employee);
+        record(index -> add(index, suggestion));
+    }
+
+    public void remove(long id) {
+        record(index -> {
+            //the rebuild scan may still read the row, so it is also kept out by id
+            if (index == building) {
+                index.removed().add(id);
+            }
+            index.employees().remove(id);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        if (!settings.isEnabled()) {
+            current = null;
+            return;
+        }
+        Index fresh = new Index(PrefixIndex.empty(), new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        synchronized (swap) {
+            building = fresh;
+            rebuilds++;
+        }
+        long rows = 0;
+        try (Stream<EmployeeSuggestion> employees = employeeRepository.streamSuggestionsBy()) {
+            for (EmployeeSuggestion employee : (Iterable<EmployeeSuggestion>) employees::iterator) {
+                //writes made through this instance during the scan are newer than what it reads
+                if (!fresh.removed().contains(employee.id())) {
+                    fresh.employees().putIfAbsent(employee.id(), employee);
+                }
+                rows++;
+            }
+            List<PrefixIndex.Posting> postings = new ArrayList<>(fresh.employees().size() * 4);
+            for (EmployeeSuggestion employee : fresh.employees().values()) {
+                for (String term : terms(employee)) {
+                    postings.add(new PrefixIndex.Posting(term, employee.id()));
+                }
+            }
+            synchronized (swap) {
+                current = new Index(fresh.postings().withBase(postings), fresh.employees(), Set.of());
+            }
+        } finally {
+            synchronized (swap) {
+                building = null;
+            }
+        }
+        lastRebuildRows = rows;
+        lastRebuildAt = Instant.now();
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getLastRebuildRows() {
+        return lastRebuildRows;
+    }
+
+    public Instant getLastRebuildAt() {
+        return lastRebuildAt;
+    }
+
+    public long getEmployees() {
+        Index index = current;
+        return index == null ? 0 : index.employees().size();
+    }
+
+    public long getPostings() {
+        Index index = current;
+        return index == null ? 0 : index.postings().size();
+    }
+
+    //postings written since the last rebuild, stale ones included; a rebuild compacts them
+    public long getAddedPostings() {
+        Index index = current;
+        return index == null ? 0 : index.postings().addedSize();
+    }
+
+    //Made to the current index and to one being rebuilt. A rebuild that starts before the caller's
+    //transaction commits scans the rows as they were, so the write is made again after the commit if a
+    //rebuild started in between; both writes can be repeated.
+    private void record(Consumer<Index> change) {
+        long seen = apply(change);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (swap) {
+                    if (rebuilds != seen) {
+                        apply(change);
+                    }
+                }
+            }
+        });
+    }
+
+    private long apply(Consumer<Index> change) {
+        synchronized (swap) {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (building != null) {
+                change.accept(building);
+            }
+            return rebuilds;
+        }
+    }
+
+    private static void add(Index index, EmployeeSuggestion employee) {
+        EmployeeSuggestion previous = index.employees().put(employee.id(), employee);
+        List<String> previousTerms = previous == null ? List.of() : terms(previous);
+        for (String term : terms(employee)) {
+            if (!previousTerms.contains(term)) {
+                index.postings().add(term, employee.id());
+            }
+        }
+    }
+
+    private static List<String> terms(EmployeeSuggestion employee) {
+        return List.of(
+                normalize(employee.firstName()),
+                normalize(employee.lastName()),
+                normalize(employee.firstName() + " " + employee.lastName()),
+                normalize(employee.email()));
+    }
+
+    //"Irène" and "irene" are the same term, as under MySQL's default accent and case insensitive collation
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Index(PrefixIndex postings, Map<Long, EmployeeSuggestion> employees, Set<Long> removed) {
+    }
+}
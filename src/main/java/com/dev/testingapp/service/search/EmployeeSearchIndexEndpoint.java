@@ -0,0 +1,39 @@
+package com.dev.testingapp.service.search;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//GET /actuator/searchindex for the index state, POST to rebuild it from the employees table
+@Component
+@Endpoint(id = "searchindex")
+public class EmployeeSearchIndexEndpoint {
+
+    private final EmployeeSearchIndex searchIndex;
+
+    public EmployeeSearchIndexEndpoint(EmployeeSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("ready", searchIndex.isReady());
+        state.put("rows", searchIndex.getLastRebuildRows());
+        state.put("rebuiltAt", searchIndex.getLastRebuildAt());
+        state.put("employees", searchIndex.getEmployees());
+        state.put("postings", searchIndex.getPostings());
+        state.put("addedPostings", searchIndex.getAddedPostings());
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        searchIndex.rebuild();
+        return state();
+    }
+}
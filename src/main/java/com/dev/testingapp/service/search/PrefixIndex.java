@@ -0,0 +1,113 @@
+package com.dev.testingapp.service.search;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+//(term, id) postings in term order: parallel sorted arrays built in bulk, plus a concurrent sorted set for
+//postings added since. A prefix query binary-searches both and walks them merged, so it reads only the
+//postings it returns. Postings are never removed; callers check hits against their current data.
+final class PrefixIndex {
+
+    private final String[] terms;
+    private final long[] ids;
+    private final ConcurrentSkipListSet<Posting> added;
+
+    private PrefixIndex(String[] terms, long[] ids, ConcurrentSkipListSet<Posting> added) {
+        this.terms = terms;
+        this.ids = ids;
+        this.added = added;
+    }
+
+    static PrefixIndex empty() {
+        return new PrefixIndex(new String[0], new long[0], new ConcurrentSkipListSet<>());
+    }
+
+    //A new index over these postings that shares this one's added set, so adds made while it was built
+    //are kept, and adds racing with the switch land in both
+    PrefixIndex withBase(List<Posting> postings) {
+        Posting[] sorted = postings.toArray(Posting[]::new);
+        Arrays.parallelSort(sorted);
+        String[] baseTerms = new String[sorted.length];
+        long[] baseIds = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            baseTerms[i] = sorted[i].term();
+            baseIds[i] = sorted[i].id();
+        }
+        return new PrefixIndex(baseTerms, baseIds, added);
+    }
+
+    void add(String term, long id) {
+        added.add(new Posting(term, id));
+    }
+
+    //Visits the postings whose term starts with the prefix, in (term, id) order, until the visitor returns false
+    void scan(String prefix, Predicate<Posting> visitor) {
+        int base = lowerBound(prefix);
+        Iterator<Posting> more = added.tailSet(new Posting(prefix, Long.MIN_VALUE)).iterator();
+        Posting next = nextMatch(more, prefix);
+        while (true) {
+            boolean inBase = base < terms.length && terms[base].startsWith(prefix);
+            if (!inBase && next == null) {
+                return;
+            }
+            Posting posting;
+            if (inBase && (next == null || compare(terms[base], ids[base], next) <= 0)) {
+                posting = new Posting(terms[base], ids[base]);
+                base++;
+            } else {
+                posting = next;
+                next = nextMatch(more, prefix);
+            }
+            if (!visitor.test(posting)) {
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return terms.length + added.size();
+    }
+
+    int addedSize() {
+        return added.size();
+    }
+
+    //first base position whose term is not before the prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Posting nextMatch(Iterator<Posting> postings, String prefix) {
+        if (!postings.hasNext()) {
+            return null;
+        }
+        Posting posting = postings.next();
+        return posting.term().startsWith(prefix) ? posting : null;
+    }
+
+    private static int compare(String term, long id, Posting posting) {
+        int byTerm = term.compareTo(posting.term());
+        return byTerm != 0 ? byTerm : Long.compare(id, posting.id());
+    }
+
+    record Posting(String term, long id) implements Comparable<Posting> {
+
+        @Override
+        public int compareTo(Posting other) {
+            return compare(term, id, other);
+        }
+    }
+}
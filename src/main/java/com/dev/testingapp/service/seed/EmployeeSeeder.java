@@ -0,0 +1,80 @@
+package com.dev.testingapp.service.seed;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Fills the employees table with synthetic rows for performance runs against an empty database (the perf
+//profile): at startup up to employees.seed.rows, or on demand. Rows go through EmployeeService, so the
+//lookup filter, search index and change feed see them. Names come from small pools, so a name lookup or a
+//type-ahead prefix matches many rows as real names do; emails are unique.
+@Component
+public class EmployeeSeeder implements ApplicationRunner {
+
+    private static final String[] FIRST_NAMES = {
+            "Amelia", "Arjun", "Beatriz", "Chen", "Chloe", "Daniel", "Elif", "Emma", "Fatima", "Felix",
+            "Grace", "Hiroshi", "Ines", "Isaac", "Jana", "Kofi", "Lena", "Lucas", "Maria", "Mateo",
+            "Nadia", "Noah", "Olga", "Omar", "Priya", "Rafael", "Sara", "Tomas", "Tyrone", "Valentina",
+            "Wei", "Yusuf"};
+    private static final String[] LAST_NAMES = {
+            "Adeyemi", "Almeida", "Becker", "Chowdhury", "Costa", "Dubois", "Eriksson", "Fernandez", "Garcia",
+            "Hansen", "Ivanova", "Jensen", "Kim", "Kowalski", "Lopez", "Martin", "Mensah", "Moreau", "Nakamura",
+            "Novak", "Okafor", "Petrov", "Rossi", "Schmidt", "Silva", "Smith", "Tanaka", "Nguyen", "Wang",
+            "Williams", "Yao", "Zhang"};
+
+    private final EmployeeService employeeService;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeProperties.Seed settings;
+
+    public EmployeeSeeder(EmployeeService employeeService, EmployeeRepository employeeRepository,
+                          EmployeeProperties properties) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.settings = properties.getSeed();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long existing = employeeRepository.count();
+        if (settings.getRows() > existing) {
+            //numbered after the rows already there, whose emails are taken if they were seeded too
+            seed(existing, (int) (settings.getRows() - existing));
+        }
+    }
+
+    //Inserts the synthetic employees first to first + count - 1 and returns their ids in that order
+    public long[] seed(long first, int count) {
+        long[] ids = new long[count];
+        int chunkSize = Math.max(1, settings.getChunkSize());
+        for (int from = 0; from < count; from += chunkSize) {
+            List<Employee> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + chunkSize, count); i++) {
+                chunk.add(employee(first + i));
+            }
+            List<Employee> saved = employeeService.saveEmployees(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+        return ids;
+    }
+
+    //The n-th synthetic employee; every combination of names is used before one repeats
+    public static Employee employee(long n) {
+        String firstName = FIRST_NAMES[(int) (n % FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[(int) (n / FIRST_NAMES.length % LAST_NAMES.length)];
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email((firstName + "." + lastName + "." + n).toLowerCase(Locale.ROOT) + "@seed.dev")
+                .build();
+    }
+}
@@ -0,0 +1,288 @@
+package com.dev.testingapp.service.writebehind;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.PendingEmployee;
+import com.dev.testingapp.exception.InvalidEmployeeException;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.WriteBehindQueueFullException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.importer.EmployeeRowValidator;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Write-behind creation: submit validates a new employee and queues it, and one writer thread inserts what
+//is queued, up to batch-size rows per transaction. Under load the queue fills while a batch is written, so
+//batches grow with the arrival rate and no delay is added when it is quiet. Duplicate emails are found per
+//batch as in the bulk import; a batch the database refuses is written again row by row. The lifecycle stops
+//after the web server, so shutdown drains the queue once no more requests can arrive.
+@Component
+public class WriteBehindEmployeeWriter implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeLookupFilter lookupFilter;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeChangeFeed changeFeed;
+    private final EmployeeProperties.WriteBehind settings;
+    private final int inListSize;
+
+    private final BlockingQueue<QueuedEmployee> queue;
+    private final Cache<String, PendingEmployee> statuses;
+    private final Timer flushTimer;
+    private final Counter created;
+    private final Counter failed;
+    private final Counter rejected;
+
+    //accepting is true while enabled and not shut down, running while the writer thread should keep polling
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehindEmployeeWriter(EmployeeRepository employeeRepository, EmployeeService employeeService,
+                                     TransactionTemplate transactionTemplate, EmployeeLookupFilter lookupFilter,
+                                     EmployeeSearchIndex searchIndex, EmployeeChangeFeed changeFeed,
+                                     EmployeeProperties properties, MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.employeeService = employeeService;
+        this.transactionTemplate = transactionTemplate;
+        this.lookupFilter = lookupFilter;
+        this.searchIndex = searchIndex;
+        this.changeFeed = changeFeed;
+        this.settings = properties.getWriteBehind();
+        this.inListSize = properties.getBatch().getInListSize();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(settings.getRetainedStatuses())
+                .expireAfterWrite(settings.getStatusRetention())
+                .build();
+        this.accepting = settings.isEnabled();
+
+        Gauge.builder("employees.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Employees accepted and not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("employees.writebehind.flush")
+                .description("Time to write one batch of queued employees")
+                .register(meterRegistry);
+        this.created = rows(meterRegistry, "created");
+        this.failed = rows(meterRegistry, "failed");
+        this.rejected = rows(meterRegistry, "rejected");
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("employees.writebehind.rows")
+                .description("Employees submitted for write-behind creation, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    //Queues the employee, or returns empty when write-behind is off or shutting down and it has to be
+    //created synchronously
+    public Optional<PendingEmployee> submit(Employee employee) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        String invalid = EmployeeRowValidator.validate(employee);
+        if (invalid != null) {
+            throw new InvalidEmployeeException(invalid);
+        }
+        PendingEmployee pending = new PendingEmployee(UUID.randomUUID().toString(), PendingEmployee.Status.PENDING,
+                null, null, Instant.now(), null);
+        statuses.put(pending.id(), pending);
+        //an id or version sent by the client would turn the insert into a merge
+        if (!queue.offer(new QueuedEmployee(pending.id(), copy(employee)))) {
+            statuses.invalidate(pending.id());
+            rejected.increment();
+            throw new WriteBehindQueueFullException("Too many employees waiting to be written, retry later");
+        }
+        return Optional.of(pending);
+    }
+
+    public Optional<PendingEmployee> getStatus(String id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    //Writes everything queued, one batch at a time, on the calling thread
+    void flush() {
+        QueuedEmployee next;
+        while ((next = queue.poll()) != null) {
+            writeBatch(next);
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            QueuedEmployee next;
+            try {
+                next = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                //shutdown timed out; what is still queued is lost
+                return;
+            }
+            if (next != null) {
+                writeBatch(next);
+            }
+        }
+    }
+
+    private void writeBatch(QueuedEmployee first) {
+        List<QueuedEmployee> batch = new ArrayList<>(settings.getBatchSize());
+        batch.add(first);
+        queue.drainTo(batch, settings.getBatchSize() - 1);
+        flushTimer.record(() -> {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                //the writer thread has to survive a database outage; the rows not settled yet are reported failed
+                batch.stream()
+                        .filter(row -> getStatus(row.id()).map(PendingEmployee::status)
+                                .orElse(PendingEmployee.Status.PENDING) == PendingEmployee.Status.PENDING)
+                        .forEach(row -> fail(row, "Could not write the employee: " + e.getMessage()));
+            }
+        });
+    }
+
+    private void write(List<QueuedEmployee> batch) {
+        Map<String, QueuedEmployee> byEmail = new LinkedHashMap<>();
+        for (QueuedEmployee row : batch) {
+            if (byEmail.putIfAbsent(row.employee().getEmail(), row) != null) {
+                fail(row, "An employee already exist with email: " + row.employee().getEmail());
+            }
+        }
+        List<String> candidates = byEmail.keySet().stream().filter(lookupFilter::mightContainEmail).toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += inListSize) {
+            existing.addAll(employeeRepository.findExistingEmails(
+                    candidates.subList(from, Math.min(from + inListSize, candidates.size()))));
+        }
+        List<QueuedEmployee> rows = new ArrayList<>(byEmail.size());
+        for (QueuedEmployee row : byEmail.values()) {
+            if (existing.contains(row.employee().getEmail())) {
+                fail(row, "An employee already exist with email: " + row.employee().getEmail());
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Employee> employees = rows.stream().map(QueuedEmployee::employee).toList();
+        try {
+            //ids come from the pooled sequence, so the flush is one JDBC batch (one multi-row INSERT on MySQL)
+            transactionTemplate.executeWithoutResult(status -> {
+                employeeRepository.saveAll(employees);
+                employeeRepository.flush();
+            });
+        } catch (DataIntegrityViolationException e) {
+            //an email taken since the check, or a value the database refused: find it row by row
+            rows.forEach(this::writeAlone);
+            return;
+        }
+        rows.forEach(this::created);
+        changeFeed.created(employees);
+    }
+
+    private void writeAlone(QueuedEmployee row) {
+        try {
+            //the rolled back batch left an id on the instance
+            Employee saved = employeeService.saveEmployee(copy(row.employee()));
+            statuses.asMap().computeIfPresent(row.id(), (id, pending) -> pending.created(saved.getId()));
+            created.increment();
+        } catch (ResourceNotFoundException | DataIntegrityViolationException e) {
+            fail(row, e.getMessage());
+        }
+    }
+
+    private void created(QueuedEmployee row) {
+        lookupFilter.add(row.employee());
+        searchIndex.add(row.employee());
+        statuses.asMap().computeIfPresent(row.id(), (id, pending) -> pending.created(row.employee().getId()));
+        created.increment();
+    }
+
+    private void fail(QueuedEmployee row, String message) {
+        statuses.asMap().computeIfPresent(row.id(), (id, pending) -> pending.failed(message));
+        failed.increment();
+    }
+
+    private static Employee copy(Employee employee) {
+        return Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "employee-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(settings.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    //lower phases stop later: after the web server (DEFAULT_PHASE - 2048) has stopped taking requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record QueuedEmployee(String id, Employee employee) {
+    }
+}
@@ -0,0 +1,9 @@
+-- One-off migration for an employees table created while ids were IDENTITY columns. Ids now come from the
+-- employees_seq table, and with ddl-auto: update Hibernate would create it starting at 1, so new rows would
+-- collide with existing ids. Run this with the application stopped, before the first start on the new
+-- version or after it; it is safe to run again.
+-- Hibernate's pooled optimizer hands out blocks of 50 ids (Employee.ID_ALLOCATION_SIZE) ending at next_val,
+-- so next_val is set a whole block past the largest id.
+CREATE TABLE IF NOT EXISTS employees_seq (next_val BIGINT) ENGINE = InnoDB;
+DELETE FROM employees_seq;
+INSERT INTO employees_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 + 1 FROM employees;
@@ -0,0 +1,66 @@
+package com.dev.testingapp.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void tomcatKeepsItsThreadPoolByDefaultTest() {
+
+        //when - action or the behavior that we are going test
+        contextRunner.run(context -> {
+
+            //then -verify the ouput
+            assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+            assertThat(context).hasBean("applicationTaskExecutor");
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void requestsRunOnVirtualThreadsWhenEnabledTest() {
+
+        //given - precondition or setup
+        boolean supported = Runtime.version().feature() >= 21;
+
+        //when - action or the behavior that we are going test
+        contextRunner.withPropertyValues("employees.virtual-threads.enabled=true")
+                .run(context -> {
+
+                    //then -verify the ouput
+                    if (!supported) {
+                        assertThat(context).hasFailed();
+                        assertThat(context.getStartupFailure()).hasRootCauseInstanceOf(NoSuchMethodException.class)
+                                .hasMessageContaining("Java 21+");
+                        return;
+                    }
+                    //the executor is Tomcat's only, so Boot's task executor stays for async MVC work
+                    assertThat(context).hasBean("applicationTaskExecutor");
+                    ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+                    context.getBean(TomcatProtocolHandlerCustomizer.class).customize(protocolHandler);
+                    ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+                    verify(protocolHandler).setExecutor(executor.capture());
+                    CompletableFuture<String> thread = new CompletableFuture<>();
+                    executor.getValue().execute(() -> thread.complete(Thread.currentThread().toString()));
+                    assertThat(thread.get(5, TimeUnit.SECONDS)).startsWith("VirtualThread");
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachedEmployeeHttpMessageConverterTest {
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private EmployeeProperties properties;
+    private CachedEmployeeHttpMessageConverter converter;
+    private Employee employee;
+
+    @BeforeEach
+    void setup(){
+        jsonMapper = spy(new ObjectMapper());
+        cborMapper = spy(new CBORMapper());
+        properties = new EmployeeProperties();
+        Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put(MediaType.APPLICATION_JSON, jsonMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborMapper);
+        converter = new CachedEmployeeHttpMessageConverter(new EmployeeResponseCache(properties), mappers);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("tyrone@gmail.com")
+                .version(0L)
+                .build();
+    }
+
+    private MockHttpOutputMessage write(Employee employee, MediaType mediaType) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(employee, mediaType, message);
+        return message;
+    }
+
+    @Test
+    void writesOnlyEmployeesInTheConfiguredFormatsTest(){
+        assertThat(converter.canWrite(Employee.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Employee.class, MediaType.ALL)).isTrue();
+        assertThat(converter.canWrite(Employee.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(Employee.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void encodesEachFormatOncePerVersionTest() throws IOException {
+        //when - action or the behavior that we are going test
+        MockHttpOutputMessage first = write(employee, MediaType.APPLICATION_JSON);
+        MockHttpOutputMessage second = write(employee, MediaType.APPLICATION_JSON);
+        MockHttpOutputMessage cbor = write(employee, MediaType.APPLICATION_CBOR);
+
+        //then -verify the ouput
+        assertThat(first.getBodyAsBytes()).isEqualTo(new ObjectMapper().writeValueAsBytes(employee));
+        assertThat(second.getBodyAsBytes()).isEqualTo(first.getBodyAsBytes());
+        assertThat(new CBORMapper().readValue(cbor.getBodyAsBytes(), Employee.class)).isEqualTo(employee);
+        verify(jsonMapper, times(1)).writeValueAsBytes(any());
+        verify(cborMapper, times(1)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void encodesAgainAfterAVersionChangeTest() throws IOException {
+        //given - precondition or setup
+        write(employee, MediaType.APPLICATION_JSON);
+        employee.setFirstName("Ty");
+        employee.setVersion(1L);
+
+        //when - action or the behavior that we are going test
+        MockHttpOutputMessage message = write(employee, MediaType.APPLICATION_JSON);
+
+        //then -verify the ouput
+        assertThat(message.getBodyAsString()).contains("\"firstName\":\"Ty\"");
+        verify(jsonMapper, times(2)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void copiesOffHeapBodiesOutTest() throws IOException {
+        //given - precondition or setup
+        properties.getResponseCache().setOffHeap(true);
+        converter = new CachedEmployeeHttpMessageConverter(new EmployeeResponseCache(properties),
+                Map.of(MediaType.APPLICATION_JSON, jsonMapper));
+        write(employee, MediaType.APPLICATION_JSON);
+
+        //when - action or the behavior that we are going test
+        MockHttpOutputMessage message = write(employee, MediaType.APPLICATION_JSON);
+
+        //then -verify the ouput
+        assertThat(message.getBodyAsBytes()).isEqualTo(new ObjectMapper().writeValueAsBytes(employee));
+        verify(jsonMapper, times(1)).writeValueAsBytes(any());
+    }
+}
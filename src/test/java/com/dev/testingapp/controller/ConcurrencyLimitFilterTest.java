@@ -0,0 +1,134 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.exception.SearchUnavailableException;
+import com.dev.testingapp.service.limit.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+    private Counter readsRejected;
+    private Counter writesRejected;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setup(){
+        readLimit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0);
+        writeLimit = new AdaptiveConcurrencyLimit(1, 1, 10, 2.0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        readsRejected = meterRegistry.counter("rejected", "requests", "read");
+        writesRejected = meterRegistry.counter("rejected", "requests", "write");
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, readsRejected, writesRejected,
+                Duration.ofMillis(1500));
+    }
+
+    private MockHttpServletResponse send(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    @Test
+    void requestBeyondTheLimitIsAnswered503Test() throws Exception {
+        //given - precondition or setup
+        writeLimit.tryAcquire();
+
+        //when - action or the behavior that we are going test
+        MockHttpServletResponse response = send("POST", "/api/employees", new MockFilterChain());
+
+        //then -verify the ouput
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).isEqualTo("Too many concurrent requests, retry later");
+        assertThat(writesRejected.count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesAtTheirLimitLeaveReadsAdmittedTest() throws Exception {
+        //given - precondition or setup
+        writeLimit.tryAcquire();
+
+        //when - action or the behavior that we are going test
+        MockHttpServletResponse get = send("GET", "/api/employees/1", new MockFilterChain());
+        MockHttpServletResponse byName = send("POST", "/api/employees/by-name", new MockFilterChain());
+        MockHttpServletResponse patch = send("PATCH", "/api/employees/1", new MockFilterChain());
+
+        //then -verify the ouput
+        assertThat(get.getStatus()).isEqualTo(200);
+        assertThat(byName.getStatus()).isEqualTo(200);
+        assertThat(patch.getStatus()).isEqualTo(503);
+        assertThat(readsRejected.count()).isZero();
+    }
+
+    @Test
+    void slotIsReturnedWhenTheRequestEndsTest() throws Exception {
+        //given - precondition or setup
+        int[] inFlightDuringRequest = new int[1];
+        FilterChain chain = (request, response) -> inFlightDuringRequest[0] = readLimit.getInFlight();
+
+        //when - action or the behavior that we are going test
+        send("GET", "/api/employees/1", chain);
+
+        //then -verify the ouput
+        assertThat(inFlightDuringRequest[0]).isEqualTo(1);
+        assertThat(readLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void serverErrorShrinksTheLimitTest() throws Exception {
+        //given - precondition or setup
+        readLimit = new AdaptiveConcurrencyLimit(10, 1, 10, 2.0);
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, readsRejected, writesRejected, Duration.ofSeconds(1));
+        FilterChain failing = (request, response) ->
+                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+
+        //when - action or the behavior that we are going test
+        send("GET", "/api/employees/1", failing);
+
+        //then -verify the ouput
+        assertThat(readLimit.getLimit()).isEqualTo(9);
+        assertThat(readLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void deliberateServiceUnavailableLeavesTheLimitTest() throws Exception {
+        //given - precondition or setup
+        readLimit = new AdaptiveConcurrencyLimit(10, 1, 10, 2.0);
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, readsRejected, writesRejected, Duration.ofSeconds(1));
+        FilterChain unavailable = (request, response) -> {
+            //as left by the DispatcherServlet once @ResponseStatus has resolved the exception
+            request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE,
+                    new SearchUnavailableException("The employee search index is not built yet"));
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        };
+        FilterChain timedOut = (request, response) -> {
+            request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE, new AsyncRequestTimeoutException());
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        };
+
+        //when - action or the behavior that we are going test
+        send("GET", "/api/employees/search", unavailable);
+        int afterDeliberate = readLimit.getLimit();
+        send("GET", "/api/employees/1", timedOut);
+
+        //then -verify the ouput
+        assertThat(afterDeliberate).isEqualTo(10);
+        assertThat(readLimit.getLimit()).isEqualTo(9);
+        assertThat(readLimit.getInFlight()).isZero();
+    }
+}
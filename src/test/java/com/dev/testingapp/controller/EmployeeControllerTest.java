@@ -1,8 +1,29 @@
 package com.dev.testingapp.controller;
 
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeeChange;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.dto.ImportRowError;
+import com.dev.testingapp.dto.PendingEmployee;
+import com.dev.testingapp.exception.ChangeFeedUnavailableException;
+import com.dev.testingapp.exception.SearchUnavailableException;
+import com.dev.testingapp.exception.VersionConflictException;
+import com.dev.testingapp.exception.WriteBehindQueueFullException;
 import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.EmployeeImportService;
 import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.importer.ImportFormat;
+import com.dev.testingapp.service.writebehind.WriteBehindEmployeeWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,15 +31,21 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.mockito.BDDMockito.*;
@@ -31,6 +58,15 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeImportService employeeImportService;
+
+    @MockBean
+    private WriteBehindEmployeeWriter writeBehindWriter;
+
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -64,13 +100,108 @@ public class EmployeeControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @Test
+    public void createEmployeeAsyncTest() throws Exception{
+        //given - precondition or setup
+        PendingEmployee pending = new PendingEmployee("p-1", PendingEmployee.Status.PENDING, null, null,
+                Instant.parse("2024-01-01T00:00:00Z"), null);
+        given(writeBehindWriter.submit(ArgumentMatchers.any(Employee.class))).willReturn(Optional.of(pending));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees")
+                .header("Prefer", "wait=5, respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/api/employees/pending/p-1"))
+                .andExpect(MockMvcResultMatchers.header().string("Preference-Applied", "respond-async"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("PENDING")));
+        verify(employeeService, never()).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    public void createEmployeeAsyncWhenDisabledTest() throws Exception{
+        //given - precondition or setup
+        given(writeBehindWriter.submit(ArgumentMatchers.any(Employee.class))).willReturn(Optional.empty());
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocationOnMock -> invocationOnMock.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Preference-Applied"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    @Test
+    public void createEmployeeAsyncQueueFullTest() throws Exception{
+        //given - precondition or setup
+        given(writeBehindWriter.submit(ArgumentMatchers.any(Employee.class)))
+                .willThrow(new WriteBehindQueueFullException("Too many employees waiting to be written, retry later"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+    }
+
+    @Test
+    public void getPendingEmployeeTest() throws Exception{
+        //given - precondition or setup
+        Instant accepted = Instant.parse("2024-01-01T00:00:00Z");
+        given(writeBehindWriter.getStatus("p-1")).willReturn(Optional.of(new PendingEmployee("p-1",
+                PendingEmployee.Status.CREATED, 42L, null, accepted, accepted.plusMillis(20))));
+        given(writeBehindWriter.getStatus("unknown")).willReturn(Optional.empty());
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/pending/{id}", "p-1"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employeeId", CoreMatchers.is(42)));
+        mockMvc.perform(get("/api/employees/pending/{id}", "unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void createEmployeesBatchTest() throws Exception{
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder().firstName("Christian").lastName("CISSE").email("chrisso@yahoo.fr").build(),
+                Employee.builder().firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build());
+        given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willAnswer((invocationOnMock -> invocationOnMock.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].email", CoreMatchers.is("daniel@yaoo.fr")));
+    }
+
     @Test
     public void getAllEmployeesTest() throws Exception {
         //given - precondition or setup
         List<Employee> employeeList = new ArrayList<>();
         employeeList.add(Employee.builder().firstName("Christian").lastName("CISSE").email("chrisso@yahoo.fr").build());
         employeeList.add(Employee.builder().firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build());
-        given(employeeService.getAllEmployees()).willReturn(employeeList);
+        given(employeeService.getEmployeePage(null, 50)).willReturn(new CursorPage<>(employeeList, null));
 
         //when - action or the behavior that we are going test
         result = mockMvc.perform(get("/api/employees"));
@@ -78,7 +209,172 @@ public class EmployeeControllerTest {
         //then -verify the ouput
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(employeeList.size())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(employeeList.size())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void getEmployeesPageWithCursorTest() throws Exception {
+        //given - precondition or setup
+        String after = CursorPage.encodeCursor(10L);
+        String next = CursorPage.encodeCursor(12L);
+        List<Employee> employeeList = List.of(
+                Employee.builder().id(11L).firstName("Christian").lastName("CISSE").email("chrisso@yahoo.fr").build(),
+                Employee.builder().id(12L).firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build());
+        given(employeeService.getEmployeePage(after, 2)).willReturn(new CursorPage<>(employeeList, next));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees").param("after", after).param("limit", "2"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.is(next)));
+    }
+
+    @Test
+    public void getEmployeesByNameTest() throws Exception {
+        //given - precondition or setup
+        List<Employee> namesakes = List.of(
+                Employee.builder().id(1L).firstName("Tyrone").lastName("YAO").email("tyrone@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Tyrone").lastName("YAO").email("yao@gmail.com").build());
+        given(employeeService.getEmployeesByName("Tyrone", "YAO", null, 50)).willReturn(new CursorPage<>(namesakes, null));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/by-name").param("firstName", "Tyrone").param("lastName", "YAO"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].email", CoreMatchers.is("yao@gmail.com")));
+    }
+
+    @Test
+    public void getEmployeesByNamesTest() throws Exception {
+        //given - precondition or setup
+        List<EmployeeName> names = List.of(new EmployeeName("Tyrone", "YAO"), new EmployeeName("Daniel", "KOUDOU"));
+        given(employeeService.getEmployeesByNames(names, null, 50)).willReturn(new CursorPage<>(List.of(employee), null));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/by-name")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(names)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    @Test
+    public void getEmployeesPageWithFieldsTest() throws Exception {
+        //given - precondition or setup
+        given(employeeService.getEmployeeViewPage(null, 50, EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL)))
+                .willReturn(new CursorPage<>(List.of(new EmployeeView(1L, null, null, "tyrone@gmail.com", null)), null));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees").param("fields", "id,email"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].email", CoreMatchers.is("tyrone@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].firstName").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].version").doesNotExist());
+    }
+
+    @Test
+    public void getEmployeeByIdWithFieldsTest() throws Exception {
+        //given - precondition or setup
+        given(employeeService.getEmployeeViewById(1L, EnumSet.of(EmployeeField.EMAIL)))
+                .willReturn(Optional.of(new EmployeeView(null, null, null, "tyrone@gmail.com", null)));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", "email"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("{\"email\":\"tyrone@gmail.com\"}", true));
+    }
+
+    @Test
+    public void getEmployeesWithUnknownFieldTest() throws Exception {
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees").param("fields", "id,salary"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    public void getEmployeesByIdsTest() throws Exception {
+        //given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().id(3L).firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build(),
+                Employee.builder().id(1L).firstName("Tyrone").lastName("YAO").email("tyrone@gmail.com").build());
+        given(employeeService.getEmployeesByIds(List.of(3L, 1L, 2L))).willReturn(employees);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees").param("ids", "3,1,2"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(3)));
+    }
+
+    @Test
+    public void searchEmployeesTest() throws Exception {
+        //given - precondition or setup
+        given(employeeService.searchEmployees("ty", 10))
+                .willReturn(List.of(new EmployeeSuggestion(1L, "Tyrone", "YAO", "tyrone@gmail.com")));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/search").param("prefix", "ty"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("Tyrone")));
+    }
+
+    @Test
+    public void searchEmployeesUnavailableTest() throws Exception {
+        //given - precondition or setup
+        given(employeeService.searchEmployees("ty", 10))
+                .willThrow(new SearchUnavailableException("The employee search index is not built yet"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/search").param("prefix", "ty"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+
+    @Test
+    public void exportEmployeesTest() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder().id(1L).firstName("Christian").lastName("CISSE").email("chrisso@yahoo.fr").build(),
+                Employee.builder().id(2L).firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build());
+        given(employeeService.exportEmployees(ArgumentMatchers.any())).willAnswer(invocationOnMock -> {
+            Consumer<Employee> sink = invocationOnMock.getArgument(0);
+            employeeList.forEach(sink);
+            return (long) employeeList.size();
+        });
+
+        //when - action or the behavior that we are going test
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        result = mockMvc.perform(asyncDispatch(mvcResult));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(employeeList.get(0)) + "\n"
+                                + objectMapper.writeValueAsString(employeeList.get(1)) + "\n"));
     }
 
     @Test
@@ -98,6 +394,173 @@ public class EmployeeControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @Test
+    public void getEmployeeNotModifiedTest() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeViewById(employeeId, EnumSet.of(EmployeeField.VERSION)))
+                .willReturn(Optional.of(new EmployeeView(null, null, null, null, 3L)));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/{id}", employeeId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    @Test
+    public void getEmployeeETagNamesTheFormatTest() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        employee.setId(employeeId);
+        employee.setVersion(3L);
+        given(employeeService.getEmployeeViewById(employeeId, EnumSet.of(EmployeeField.VERSION)))
+                .willReturn(Optional.of(new EmployeeView(null, null, null, null, 3L)));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        ResultActions jsonTagForCbor = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+        ResultActions cborTagForCbor = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""));
+
+        //then -verify the ouput
+        jsonTagForCbor.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-cbor\""));
+        cborTagForCbor.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-cbor\""));
+    }
+
+    @Test
+    public void getEmployeeWithStaleETagTest() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        employee.setId(employeeId);
+        employee.setVersion(4L);
+        given(employeeService.getEmployeeViewById(employeeId, EnumSet.of(EmployeeField.VERSION)))
+                .willReturn(Optional.of(new EmployeeView(null, null, null, null, 4L)));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/{id}", employeeId).header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(4)));
+    }
+
+    @Test
+    public void getEmployeesPageNotModifiedTest() throws Exception {
+        //given - precondition or setup
+        String next = CursorPage.encodeCursor(12L);
+        List<Employee> employeeList = List.of(
+                Employee.builder().id(11L).firstName("Christian").lastName("CISSE").email("chrisso@yahoo.fr").version(0L).build(),
+                Employee.builder().id(12L).firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").version(2L).build());
+        given(employeeService.getEmployeePage(null, 2)).willReturn(new CursorPage<>(employeeList, next));
+        given(employeeService.getEmployeeViewPage(null, 2, EnumSet.of(EmployeeField.ID, EmployeeField.VERSION)))
+                .willReturn(new CursorPage<>(List.of(new EmployeeView(11L, null, null, null, 0L),
+                        new EmployeeView(12L, null, null, null, 2L)), next));
+        String etag = mockMvc.perform(get("/api/employees").param("limit", "2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees").param("limit", "2").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag));
+        verify(employeeService, times(1)).getEmployeePage(null, 2);
+    }
+
+    @Test
+    public void getEmployeeAsCborTest() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        employee.setId(employeeId);
+        employee.setVersion(0L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/{id}", employeeId).accept(MediaType.APPLICATION_CBOR));
+
+        //then -verify the ouput
+        byte[] body = result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0-cbor\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertThat(new CBORMapper().readValue(body, Employee.class)).isEqualTo(employee);
+        Assertions.assertThat(body.length).isLessThan(objectMapper.writeValueAsBytes(employee).length);
+    }
+
+    @Test
+    public void createEmployeesFromSmileTest() throws Exception {
+        //given - precondition or setup
+        SmileMapper smileMapper = new SmileMapper();
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+        given(employeeService.saveEmployees(List.of(employee))).willReturn(List.of(employee));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/batch")
+                .contentType(smile)
+                .accept(smile)
+                .content(smileMapper.writeValueAsBytes(List.of(employee))));
+
+        //then -verify the ouput
+        byte[] body = result.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertThat(smileMapper.readValue(body, Employee[].class)).containsExactly(employee);
+    }
+
+    @Test
+    public void getChangesResumesFromLastEventIdTest() throws Exception{
+        //given - precondition or setup
+        employee.setId(7L);
+        employee.setVersion(1L);
+        Instant committedAt = Instant.parse("2024-01-01T00:00:00Z");
+        given(changeFeed.subscribe(ArgumentMatchers.eq(41L), ArgumentMatchers.any())).willAnswer(invocation -> {
+            EmployeeChangeFeed.Sink sink = invocation.getArgument(1);
+            sink.send(new EmployeeChange(42L, EmployeeChange.Type.UPDATED, 7L, employee, committedAt));
+            sink.send(new EmployeeChange(43L, EmployeeChange.Type.DELETED, 7L, null, committedAt));
+            return mock(EmployeeChangeFeed.Subscription.class);
+        });
+
+        //when - action or the behavior that we are going test
+        MvcResult started = mockMvc.perform(get("/api/employees/changes")
+                        .header("Last-Event-ID", "41")
+                        .param("after", "12"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        //then -verify the ouput
+        String events = started.getResponse().getContentAsString();
+        Assertions.assertThat(started.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        Assertions.assertThat(events)
+                .contains("id:42\nevent:updated\ndata:{\"sequence\":42,\"type\":\"UPDATED\",\"employeeId\":7,")
+                .contains("\"email\":\"tyrone@gmail.com\"")
+                .contains("id:43\nevent:deleted\n");
+    }
+
+    @Test
+    public void getChangesWhenTheFeedIsFullTest() throws Exception{
+        //given - precondition or setup
+        given(changeFeed.subscribe(ArgumentMatchers.isNull(), ArgumentMatchers.any()))
+                .willThrow(new ChangeFeedUnavailableException("Too many change feed subscribers, retry later"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/changes"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+
     @Test
     public void getEmployeeFailTest() throws Exception{
         //given - precondition or setup
@@ -129,9 +592,8 @@ public class EmployeeControllerTest {
                 .build();
 
         //when - action or the behavior that we are going test
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employeeSaved));
-        given(employeeService.updateEmployee(ArgumentMatchers.any(Employee.class)))
-                .willAnswer((invocationOnMock -> invocationOnMock.getArgument(0)));
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch("Julien", "Konaté", "jkonate@gmail.com", null)))
+                .willReturn(Optional.of(employeeUpdated));
 
         result = mockMvc.perform(put("/api/employees/{id}", employeeId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -164,9 +626,8 @@ public class EmployeeControllerTest {
                 .build();
 
         //when - action or the behavior that we are going test
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        given(employeeService.updateEmployee(ArgumentMatchers.any(Employee.class)))
-                .willAnswer((invocationOnMock -> invocationOnMock.getArgument(0)));
+        given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(EmployeePatch.class)))
+                .willReturn(Optional.empty());
 
         result = mockMvc.perform(put("/api/employees/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -179,17 +640,264 @@ public class EmployeeControllerTest {
 
     }
 
+    @Test
+    public void updateEmployeeRequiresEveryFieldTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+
+        //when - action or the behavior that we are going test
+        //a PUT replaces the employee, so a missing field is not left as it was
+        result = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"yao@gmail.com\"}"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        verify(employeeService, never()).patchEmployee(ArgumentMatchers.anyLong(), ArgumentMatchers.any(EmployeePatch.class));
+    }
+
+    @Test
+    public void patchEmployeeTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employeePatched = Employee.builder()
+                .id(employeeId)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("yao@gmail.com")
+                .version(4L)
+                .build();
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch(null, null, "yao@gmail.com", 3L)))
+                .willReturn(Optional.of(employeePatched));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"yao@gmail.com\",\"version\":3}"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("yao@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(4)));
+    }
+
+    @Test
+    public void patchEmployeeConflictTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(EmployeePatch.class)))
+                .willThrow(new VersionConflictException("Employee 1 is no longer at version 3"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Tichou\",\"version\":3}"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    public void patchEmployeeIfMatchTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employeePatched = Employee.builder()
+                .id(employeeId)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("yao@gmail.com")
+                .version(4L)
+                .build();
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch(null, null, "yao@gmail.com", 3L)))
+                .willReturn(Optional.of(employeePatched));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"yao@gmail.com\"}"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void patchEmployeeIfMatchSmileTagTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+        Employee employeePatched = Employee.builder()
+                .id(employeeId)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("yao@gmail.com")
+                .version(4L)
+                .build();
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch(null, null, "yao@gmail.com", 3L)))
+                .willReturn(Optional.of(employeePatched));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3-smile\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(smile)
+                .content("{\"email\":\"yao@gmail.com\"}"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(smile))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4-smile\""));
+    }
+
+    @Test
+    public void updateEmployeeIfMatchStaleTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch("Tyrone", "YAO", "tyrone@gmail.com", 3L)))
+                .willThrow(new VersionConflictException("Employee 1 is no longer at version 3"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateEmployeeWeakIfMatchTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeViewById(employeeId, EnumSet.of(EmployeeField.VERSION)))
+                .willReturn(Optional.of(new EmployeeView(null, null, null, null, 3L)));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        //If-Match compares strongly, so a weak tag never matches
+        result.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        verify(employeeService, never()).patchEmployee(ArgumentMatchers.anyLong(), ArgumentMatchers.any(EmployeePatch.class));
+    }
+
+    @Test
+    public void deleteEmployeeIfMatchTest() throws Exception{
+        //given - precondition or setup
+        given(employeeService.deletedEmployee(1L, 2L)).willReturn(true);
+        given(employeeService.deletedEmployee(2L, 2L))
+                .willThrow(new VersionConflictException("Employee 2 is no longer at version 2"));
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(delete("/api/employees/{id}", 1L).header(HttpHeaders.IF_MATCH, "\"2\""));
+        ResultActions stale = mockMvc.perform(delete("/api/employees/{id}", 2L).header(HttpHeaders.IF_MATCH, "\"2\""));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk());
+        stale.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        verify(employeeService, never()).deletedEmployee(ArgumentMatchers.anyLong());
+    }
+
     @Test
     public void deleteEmployeeTest() throws Exception{
         //given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deletedEmployee(employeeId);
+        given(employeeService.deletedEmployee(employeeId)).willReturn(true);
 
         //when - action or the behavior that we are going test
-            result = mockMvc.perform(delete("/api/employee/{id}", employeeId));
+            result = mockMvc.perform(delete("/api/employees/{id}", employeeId));
 
         //then -verify the ouput
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
+
+    @Test
+    public void deleteMissingEmployeeTest() throws Exception{
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.deletedEmployee(employeeId)).willReturn(false);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void deleteEmployeesByIdsTest() throws Exception{
+        //given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2L);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted", CoreMatchers.is(2)));
+    }
+
+    @Test
+    public void deleteEmployeesBatchTest() throws Exception{
+        //given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L))).willReturn(2L);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1,2]"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted", CoreMatchers.is(2)));
+    }
+
+    @Test
+    public void importEmployeesCsvTest() throws Exception{
+        //given - precondition or setup
+        ImportReport report = new ImportReport("import-1", ImportReport.Status.COMPLETED, 2, 1, 1,
+                List.of(new ImportRowError(3, "tyrone@gmail.com", "Duplicate email in the import")),
+                Instant.now(), Instant.now());
+        given(employeeImportService.importEmployees(ArgumentMatchers.any(InputStream.class), eq(ImportFormat.CSV)))
+                .willReturn(report);
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content("firstName,lastName,email\nTyrone,YAO,tyrone@gmail.com\nTyrone,YAO,tyrone@gmail.com\n"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line", CoreMatchers.is(3)));
+    }
+
+    @Test
+    public void importEmployeesUnsupportedTypeTest() throws Exception{
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees/import")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<employees/>"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType());
+    }
+
+    @Test
+    public void getMissingImportTest() throws Exception{
+        //given - precondition or setup
+        given(employeeImportService.getImport("unknown")).willReturn(Optional.empty());
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(get("/api/employees/import/{id}", "unknown"));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
 }
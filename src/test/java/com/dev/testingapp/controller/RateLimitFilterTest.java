@@ -0,0 +1,133 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.service.limit.ClientRateLimiter;
+import com.dev.testingapp.service.limit.ClientRateLimiter.Budget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimitFilterTest {
+
+    private AtomicLong clock;
+    private Map<Budget, Counter> rejected;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup(){
+        EmployeeProperties.RateLimit settings = new EmployeeProperties().getRateLimit();
+        settings.getLists().setCapacity(2);
+        settings.getWrites().setCapacity(20);
+        settings.setImportCost(20);
+        settings.setExportCost(2);
+        clock = new AtomicLong();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rejected = new EnumMap<>(Budget.class);
+        for (Budget budget : Budget.values()) {
+            rejected.put(budget, meterRegistry.counter("rejected", "budget", budget.name()));
+        }
+        filter = new RateLimitFilter(new ClientRateLimiter(settings, clock::get), settings, rejected);
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String apiKey, String ids) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        if (ids != null) {
+            request.setParameter("ids", ids);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void allowedRequestCarriesTheRateLimitHeadersTest() throws Exception {
+        //when - action or the behavior that we are going test
+        MockHttpServletResponse response = send("GET", "/api/employees/1", "reporting", null);
+
+        //then -verify the ouput
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("200");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("199");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("1");
+        assertThat(response.getHeader("Retry-After")).isNull();
+    }
+
+    @Test
+    void fullTableReadsOverBudgetAreAnswered429Test() throws Exception {
+        //given - precondition or setup
+        send("GET", "/api/employees", "reporting", null);
+        send("GET", "/api/employees", "reporting", null);
+
+        //when - action or the behavior that we are going test
+        MockHttpServletResponse response = send("GET", "/api/employees", "reporting", null);
+
+        //then -verify the ouput
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).isEqualTo("Rate limit exceeded, retry later");
+        assertThat(rejected.get(Budget.LISTS).count()).isEqualTo(1);
+        assertThat(send("GET", "/api/employees/1", "reporting", null).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/employees", "ids=1,2", "1,2").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/employees", "billing", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bulkWritesCostMoreTest() throws Exception {
+        //when - action or the behavior that we are going test
+        MockHttpServletResponse create = send("POST", "/api/employees", "loader", null);
+        MockHttpServletResponse batch = send("POST", "/api/employees/batch", "loader", null);
+        MockHttpServletResponse deletes = send("DELETE", "/api/employees", "loader", "1,2");
+
+        //then -verify the ouput
+        assertThat(create.getHeader("RateLimit-Remaining")).isEqualTo("19");
+        assertThat(batch.getHeader("RateLimit-Remaining")).isEqualTo("9");
+        assertThat(deletes.getStatus()).isEqualTo(429);
+        assertThat(rejected.get(Budget.WRITES).count()).isEqualTo(1);
+    }
+
+    @Test
+    void clientsWithoutKeyAreToldApartByAddressTest() throws Exception {
+        //given - precondition or setup
+        send("GET", "/api/employees", null, null);
+        send("GET", "/api/employees", null, null);
+
+        //when - action or the behavior that we are going test
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/employees");
+        other.setRemoteAddr("10.0.0.7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, new MockFilterChain());
+
+        //then -verify the ouput
+        assertThat(send("GET", "/api/employees", null, null).getStatus()).isEqualTo(429);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void costAboveItsBucketIsRejectedTest(){
+        //given - precondition or setup
+        EmployeeProperties.RateLimit settings = new EmployeeProperties().getRateLimit();
+        settings.setImportCost(settings.getWrites().getCapacity() + 1);
+
+        //when - action or the behavior that we are going test
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new RateLimitFilter(new ClientRateLimiter(settings, clock::get), settings, rejected));
+
+        //then -verify the ouput
+        assertThat(exception.getMessage()).startsWith("employees.rate-limit.import-cost is 51");
+    }
+}
@@ -0,0 +1,168 @@
+package com.dev.testingapp.controller;
+
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.exception.VersionConflictException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+@WebFluxTest
+public class ReactiveEmployeeControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+
+    Employee employee = null;
+
+    @BeforeEach
+    void setup(){
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("tyrone@gmail.com")
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    public void createEmployeeTest(){
+        //given - precondition or setup
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer(invocationOnMock -> Mono.just(invocationOnMock.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @Test
+    public void getAllEmployeesTest(){
+        //given - precondition or setup
+        given(employeeService.getEmployeePage(null, 50))
+                .willReturn(Mono.just(new CursorPage<>(List.of(employee), CursorPage.encodeCursor(1L))));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/employees").exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo(CursorPage.encodeCursor(1L));
+    }
+
+    @Test
+    public void exportEmployeesTest(){
+        //given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Daniel").lastName("KOUDOU").email("daniel@yaoo.fr").build();
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(employee, other));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        //then -verify the ouput
+        List<Employee> exported = result.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(exported).containsExactly(employee, other);
+    }
+
+    @Test
+    public void getEmployeeFailTest(){
+        //given - precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/employees/{id}", 1L).exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isNotFound();
+    }
+
+    @Test
+    public void patchEmployeeConflictTest(){
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Ty", null, null, 3L);
+        given(employeeService.patchEmployee(1L, patch))
+                .willReturn(Mono.error(new VersionConflictException("Employee 1 is no longer at version 3")));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.patch().uri("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patch)
+                .exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void updateEmployeeRequiresEveryFieldTest(){
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.put().uri("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"yao@gmail.com\"}")
+                .exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isBadRequest();
+        verify(employeeService, never()).patchEmployee(ArgumentMatchers.anyLong(), ArgumentMatchers.any(EmployeePatch.class));
+    }
+
+    @Test
+    public void deleteMissingEmployeeTest(){
+        //given - precondition or setup
+        given(employeeService.deletedEmployee(1L)).willReturn(Mono.just(false));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.delete().uri("/api/employees/{id}", 1L).exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isNotFound();
+    }
+
+    @Test
+    public void deleteEmployeesByIdsTest(){
+        //given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(Mono.just(2L));
+
+        //when - action or the behavior that we are going test
+        WebTestClient.ResponseSpec result = webTestClient.delete().uri("/api/employees?ids=1,2,3").exchange();
+
+        //then -verify the ouput
+        result.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(2);
+    }
+}
@@ -9,18 +9,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "employees.write-behind.enabled=true")
 @AutoConfigureMockMvc
 public class EmployeeControllerIT {
 
@@ -30,6 +46,10 @@ public class EmployeeControllerIT {
     private EmployeeRepository employeeRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
+    @LocalServerPort
+    private int port;
 
     Employee employee = null;
     ResultActions  result;
@@ -37,6 +57,7 @@ public class EmployeeControllerIT {
     @BeforeEach
     void setup() {
         employeeRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         employee = Employee.builder()
                 .firstName("Tyrone")
                 .lastName("YAO")
@@ -60,6 +81,55 @@ public class EmployeeControllerIT {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @Test
+    public void createEmployeeIgnoresClientIdAndVersionTest() throws Exception{
+        //given - precondition or setup
+        Employee existing = employeeRepository.save(Employee.builder()
+                .firstName("Christian")
+                .lastName("CISSE")
+                .email("chrisso@yahoo.fr")
+                .build());
+        employee.setId(existing.getId());
+        employee.setVersion(existing.getVersion());
+
+        //when - action or the behavior that we are going test
+        result = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the ouput
+        result.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.not(existing.getId().intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(0)));
+        assertThat(employeeRepository.findById(existing.getId())).get()
+                .extracting(Employee::getFirstName, Employee::getEmail)
+                .containsExactly("Christian", "chrisso@yahoo.fr");
+        assertThat(employeeRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void createEmployeeAsyncTest() throws Exception{
+        //given - precondition or setup
+
+        //when - action or the behavior that we are going test
+        String location = mockMvc.perform(post("/api/employees")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        //then -verify the ouput
+        String status = "PENDING";
+        for (int attempt = 0; attempt < 50 && status.equals("PENDING"); attempt++) {
+            Thread.sleep(100);
+            status = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andReturn().getResponse().getContentAsString()).get("status").asText();
+        }
+        assertThat(status).isEqualTo("CREATED");
+        assertThat(employeeRepository.findByEmail(employee.getEmail())).isPresent();
+    }
+
     @Test
     public void getAllEmployeesTest() throws Exception {
         //given - precondition or setup
@@ -74,7 +144,7 @@ public class EmployeeControllerIT {
         //then -verify the ouput
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(employeeList.size())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(employeeList.size())));
     }
 
     @Test
@@ -141,13 +211,13 @@ public class EmployeeControllerIT {
     @Test
     public void updateEmployeeFailTest() throws Exception{
         //given - precondition or setup
-        long employeeId = 1L;
         Employee employeeSaved  = Employee.builder()
                 .firstName("Tyrone")
                 .lastName("YAO")
                 .email("tyrone@gmail.com")
                 .build();
         employeeRepository.save(employeeSaved);
+        long employeeId = employeeRepository.findAll().stream().mapToLong(Employee::getId).max().orElse(0) + 1;
 
         Employee employeeUpdated = Employee.builder()
                 .firstName("Julien")
@@ -172,12 +242,69 @@ public class EmployeeControllerIT {
         employeeRepository.save(employee);
 
         //when - action or the behavior that we are going test
-        result = mockMvc.perform(delete("/api/employee/{id}", employee.getId()));
+        result = mockMvc.perform(delete("/api/employees/{id}", employee.getId()));
 
         //then -verify the ouput
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    public void getAllEmployeesCompressedTest() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employeeList.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build());
+        }
+        employeeRepository.saveAll(employeeList);
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/api/employees");
+
+        //when - action or the behavior that we are going test
+        HttpResponse<byte[]> compressed = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
 
+        //then -verify the ouput
+        assertThat(compressed.headers().firstValue("Content-Encoding")).contains("gzip");
+        assertThat(compressed.body().length).isLessThan(plain.body().length);
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertThat(body.readAllBytes()).isEqualTo(plain.body());
+        }
+        //a page tag is weak, which lets Tomcat compress the response
+        assertThat(compressed.headers().firstValue("ETag")).isEqualTo(plain.headers().firstValue("ETag")).get()
+                .asString().startsWith("W/");
+    }
+
+    @Test
+    public void changeStreamPushesCommittedWritesTest() throws Exception {
+        //given - precondition or setup
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<Stream<String>> stream = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes")).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        Iterator<String> lines = stream.body().iterator();
+
+        //when - action or the behavior that we are going test
+        mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        //then -verify the ouput
+        List<String> event = CompletableFuture.supplyAsync(() -> {
+            //skip the reconnect delay sent first
+            String line = lines.next();
+            while (!line.startsWith("id:")) {
+                line = lines.next();
+            }
+            return List.of(line, lines.next(), lines.next());
+        }).get(10, TimeUnit.SECONDS);
+        stream.body().close();
+        assertThat(stream.headers().firstValue("Content-Type")).get().asString().startsWith("text/event-stream");
+        assertThat(event.get(0)).startsWith("id:");
+        assertThat(event.get(1)).isEqualTo("event:created");
+        assertThat(objectMapper.readTree(event.get(2).substring("data:".length())).at("/employee/email").asText())
+                .isEqualTo(employee.getEmail());
+    }
 }
@@ -1,5 +1,6 @@
 package com.dev.testingapp.integrationTests;
 
+import com.dev.testingapp.dto.EmployeeName;
 import com.dev.testingapp.model.Employee;
 import com.dev.testingapp.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -55,6 +57,7 @@ class EmployeeRepositoryIT {
                 .email("irene.cisse@gmail.com")
                 .build();
 
+        employeeRepository.deleteAll();
         employeeRepository.save(employee);
         employeeRepository.save(employee2);
 
@@ -63,7 +66,7 @@ class EmployeeRepositoryIT {
 
         //then -verify the ouput
         assertThat(employeeList).isNotNull();
-        assertThat(employeeList.size()).isEqualTo(3);
+        assertThat(employeeList.size()).isEqualTo(2);
     }
 
     @Test
@@ -119,63 +122,20 @@ class EmployeeRepositoryIT {
         assertThat(employeeOptional).isEmpty();
     }
 
-    //JUnit test for custom query using JPQL with index
     @Test
-     void findEmployeeByFirstNameAndLastNameTest(){
+     void findEmployeesByNameTest(){
         //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
-
-        //when - action or the behavior that we are going test
-        Employee employeeFound = employeeRepository.findByJPQL(firstName, lastName);
-
-        //then -verify the ouput
-        assertThat(employeeFound).isNotNull();
-    }
-
-    //JUnit test for custom query using JPQL with named params
-    @Test
-     void findEmployeeByFirstNameAndLastNameUsingNamedParamsTest(){
-        //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
-
-        //when - action or the behavior that we are going test
-        Employee employeeFound = employeeRepository.findByJPQLNamedParams(firstName, lastName);
-
-        //then -verify the ouput
-        assertThat(employeeFound).isNotNull();
-    }
-
-    //Junit test for custom query native SQL with index paramas
-    @Test
-     void findEmployeeByFirstNameAndLastNameUsingNativeSQLTest(){
-        //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
-
-        //when - action or the behavior that we are going test
-        Employee empployeeFound = employeeRepository.findByNativeSQL(firstName, lastName);
-
-        //then -verify the ouput
-        assertThat(empployeeFound).isNotNull();
-    }
-
-    @Test
-     void findEmployeeByFirstNameAndLastNameUsingNativeSQLNamedTest(){
-        //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
+        Employee namesake = Employee.builder().firstName("Tyrone").lastName("YAO").email("tyrone.yao@gmail.com").build();
+        employeeRepository.saveAll(List.of(employee, namesake));
 
         //when - action or the behavior that we are going test
-        Employee empployeeFound = employeeRepository.findByNativeSQLNamed(firstName, lastName);
+        List<Employee> page = employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+                "Tyrone", "YAO", 0L, PageRequest.of(0, 10));
+        List<Employee> batch = employeeRepository.findByNameIn(List.of(new EmployeeName("Tyrone", "YAO")), 0L, 10);
 
         //then -verify the ouput
-        assertThat(empployeeFound).isNotNull();
+        assertThat(page).containsExactly(employee, namesake);
+        assertThat(batch).containsExactly(employee, namesake);
     }
 
 }
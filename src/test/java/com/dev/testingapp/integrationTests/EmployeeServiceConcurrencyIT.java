@@ -0,0 +1,74 @@
+package com.dev.testingapp.integrationTests;
+
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeServiceConcurrencyIT {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void concurrentCreatesWithSameEmailTest() throws Exception {
+        //given - precondition or setup
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Employee employee = Employee.builder()
+                    .firstName("Tyrone" + i)
+                    .lastName("YAO")
+                    .email("tyrone@gmail.com")
+                    .build();
+            attempts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    employeeService.saveEmployee(employee);
+                    return true;
+                } catch (ResourceNotFoundException e) {
+                    return false;
+                }
+            }));
+        }
+
+        //when - action or the behavior that we are going test
+        start.countDown();
+        int created = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        //then -verify the ouput
+        assertThat(created).isEqualTo(1);
+        assertThat(employeeRepository.findAll()).hasSize(1);
+    }
+}
@@ -1,16 +1,26 @@
 package com.dev.testingapp.repository;
 
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
 import com.dev.testingapp.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class EmployeeRepositoryTest {
@@ -43,6 +53,23 @@ class EmployeeRepositoryTest {
         assertThat(savedEmployee.getId()).isPositive();
     }
 
+    @Test
+     void saveDuplicateEmailViolatesUniqueIndexTest(){
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = Employee.builder()
+                .firstName("Tichou")
+                .lastName("YAO")
+                .email(employee.getEmail())
+                .build();
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .message().containsIgnoringCase(Employee.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
     @Test
      void findAllEmployeeTest(){
         //given - precondition or setup
@@ -64,6 +91,101 @@ class EmployeeRepositoryTest {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    @Test
+     void findEmployeePageAfterIdTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        Employee employee3 = Employee.builder().firstName("Daniel").lastName("KOUDOU").email("daniel@yahoo.fr").build();
+        employeeRepository.saveAll(List.of(employee, employee2, employee3));
+
+        //when - action or the behavior that we are going test
+        List<Employee> page = employeeRepository.findByIdGreaterThanOrderByIdAsc(employee.getId(), PageRequest.of(0, 1));
+
+        //then -verify the ouput
+        assertThat(page).extracting(Employee::getId).containsExactly(employee2.getId());
+    }
+
+    @Test
+     void streamAllEmployeeTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        employeeRepository.save(employee2);
+        employeeRepository.save(employee);
+
+        //when - action or the behavior that we are going test
+        List<Long> ids;
+        try (Stream<Employee> employees = employeeRepository.streamAllByOrderByIdAsc()) {
+            ids = employees.map(Employee::getId).toList();
+        }
+
+        //then -verify the ouput
+        assertThat(ids).containsExactly(employee2.getId(), employee.getId());
+    }
+
+    @Test
+     void streamEmployeeKeysTest(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+
+        //when - action or the behavior that we are going test
+        List<EmployeeKey> keys;
+        try (Stream<EmployeeKey> stream = employeeRepository.streamKeysBy()) {
+            keys = stream.toList();
+        }
+
+        //then -verify the ouput
+        assertThat(keys).hasSize(1);
+        assertThat(keys.get(0).getId()).isEqualTo(employee.getId());
+        assertThat(keys.get(0).getEmail()).isEqualTo("yao@gmail.com");
+    }
+
+    @Test
+     void streamEmployeeSuggestionsTest(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+
+        //when - action or the behavior that we are going test
+        List<EmployeeSuggestion> suggestions;
+        try (Stream<EmployeeSuggestion> stream = employeeRepository.streamSuggestionsBy()) {
+            suggestions = stream.toList();
+        }
+
+        //then -verify the ouput
+        assertThat(suggestions).containsExactly(EmployeeSuggestion.of(employee));
+    }
+
+    @Test
+     void findViewsByIdGreaterThanReadsOnlyRequestedFieldsTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        Employee employee3 = Employee.builder().firstName("Daniel").lastName("KOUDOU").email("daniel@yahoo.fr").build();
+        employeeRepository.saveAll(List.of(employee, employee2, employee3));
+
+        //when - action or the behavior that we are going test
+        List<EmployeeView> views = employeeRepository.findViewsByIdGreaterThan(
+                employee.getId(), 10, EnumSet.of(EmployeeField.EMAIL));
+
+        //then -verify the ouput
+        assertThat(views).containsExactly(
+                new EmployeeView(employee2.getId(), null, null, "irene.cisse@gmail.com", null),
+                new EmployeeView(employee3.getId(), null, null, "daniel@yahoo.fr", null));
+        assertThat(employeeRepository.findViewsByIdGreaterThan(0L, 1, EnumSet.of(EmployeeField.ID))).hasSize(1);
+    }
+
+    @Test
+     void findViewByIdTest(){
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        //when - action or the behavior that we are going test
+        Optional<EmployeeView> view = employeeRepository.findViewById(employee.getId(),
+                EnumSet.of(EmployeeField.FIRST_NAME, EmployeeField.VERSION));
+
+        //then -verify the ouput
+        assertThat(view).contains(new EmployeeView(employee.getId(), "Tyrone", null, null, 0L));
+        assertThat(employeeRepository.findViewById(employee.getId() + 1, EnumSet.of(EmployeeField.ID))).isEmpty();
+    }
+
     @Test
      void findEmployeeByIdTest(){
         //given - precondition or setup
@@ -88,6 +210,18 @@ class EmployeeRepositoryTest {
         assertThat(employeeByEmail.getEmail()).isEqualTo("yao@gmail.com");
     }
 
+    @Test
+     void findExistingEmailsTest(){
+        //given - precondition or setup
+        employeeRepository.save(employee);
+
+        //when - action or the behavior that we are going test
+        List<String> existing = employeeRepository.findExistingEmails(List.of("yao@gmail.com", "nobody@gmail.com"));
+
+        //then -verify the ouput
+        assertThat(existing).containsExactly("yao@gmail.com");
+    }
+
     @Test
      void updateEmployeeTest(){
         //given - precondition or setup
@@ -104,6 +238,37 @@ class EmployeeRepositoryTest {
         assertThat(employeeUpdated.getFirstName()).isEqualTo("Tichou");
     }
 
+    @Test
+     void patchEmployeeTest(){
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        long version = employee.getVersion();
+
+        //when - action or the behavior that we are going test
+        int updated = employeeRepository.patch(employee.getId(), new EmployeePatch("Tichou", null, null, version));
+        Employee employeePatched = employeeRepository.findById(employee.getId()).get();
+
+        //then -verify the ouput
+        assertThat(updated).isEqualTo(1);
+        assertThat(employeePatched.getFirstName()).isEqualTo("Tichou");
+        assertThat(employeePatched.getLastName()).isEqualTo("YAO");
+        assertThat(employeePatched.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+     void patchEmployeeStaleVersionTest(){
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        long staleVersion = employee.getVersion() - 1;
+
+        //when - action or the behavior that we are going test
+        int updated = employeeRepository.patch(employee.getId(), new EmployeePatch("Tichou", null, null, staleVersion));
+
+        //then -verify the ouput
+        assertThat(updated).isZero();
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("Tyrone");
+    }
+
     @Test
      void deletedEmployeeTest(){
         //given - precondition or setup
@@ -117,63 +282,104 @@ class EmployeeRepositoryTest {
         assertThat(employeeOptional).isEmpty();
     }
 
-    //JUnit test for custom query using JPQL with index
     @Test
-     void findEmployeeByFirstNameAndLastNameTest(){
+     void deleteEmployeeByIdTest(){
         //given - precondition or setup
         employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
 
         //when - action or the behavior that we are going test
-        Employee employeeFound = employeeRepository.findByJPQL(firstName, lastName);
+        int deleted = employeeRepository.deleteEmployeeById(employee.getId());
+        int deletedAgain = employeeRepository.deleteEmployeeById(employee.getId());
 
         //then -verify the ouput
-        assertThat(employeeFound).isNotNull();
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isZero();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
     }
 
-    //JUnit test for custom query using JPQL with named params
     @Test
-     void findEmployeeByFirstNameAndLastNameUsingNamedParamsTest(){
+     void deleteEmployeeByIdAndVersionTest(){
         //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
+        employeeRepository.saveAndFlush(employee);
 
         //when - action or the behavior that we are going test
-        Employee employeeFound = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        int stale = employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), employee.getVersion() + 1);
+        int deleted = employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), employee.getVersion());
 
         //then -verify the ouput
-        assertThat(employeeFound).isNotNull();
+        assertThat(stale).isZero();
+        assertThat(deleted).isEqualTo(1);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
     }
 
-    //Junit test for custom query native SQL with index paramas
     @Test
-     void findEmployeeByFirstNameAndLastNameUsingNativeSQLTest(){
+     void findExistingIdsForUpdateTest(){
         //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        employeeRepository.saveAll(List.of(employee, employee2));
 
         //when - action or the behavior that we are going test
-        Employee empployeeFound = employeeRepository.findByNativeSQL(firstName, lastName);
+        List<Long> existing = employeeRepository.findExistingIdsForUpdate(List.of(employee2.getId(), -1L));
 
         //then -verify the ouput
-        assertThat(empployeeFound).isNotNull();
+        assertThat(existing).containsExactly(employee2.getId());
     }
 
     @Test
-     void findEmployeeByFirstNameAndLastNameUsingNativeSQLNamedTest(){
+     void deleteEmployeesByIdInTest(){
         //given - precondition or setup
-        employeeRepository.save(employee);
-        String firstName = "Tyrone";
-        String lastName = "YAO";
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        Employee employee3 = Employee.builder().firstName("Daniel").lastName("KOUDOU").email("daniel@yahoo.fr").build();
+        employeeRepository.saveAll(List.of(employee, employee2, employee3));
+
+        //when - action or the behavior that we are going test
+        int deleted = employeeRepository.deleteEmployeesByIdIn(List.of(employee.getId(), employee2.getId(), -1L));
+
+        //then -verify the ouput
+        assertThat(deleted).isEqualTo(2);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getId).containsExactly(employee3.getId());
+    }
+
+    @Test
+     void findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAscTest(){
+        //given - precondition or setup
+        Employee namesake = Employee.builder().firstName("Tyrone").lastName("YAO").email("tyrone.yao@gmail.com").build();
+        Employee namesake2 = Employee.builder().firstName("Tyrone").lastName("YAO").email("ty.yao@yahoo.fr").build();
+        Employee other = Employee.builder().firstName("Tyrone").lastName("KOUDOU").email("tyrone@yahoo.fr").build();
+        employeeRepository.saveAll(List.of(employee, namesake, other, namesake2));
+
+        //when - action or the behavior that we are going test
+        List<Employee> firstPage = employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+                "Tyrone", "YAO", 0L, PageRequest.of(0, 2));
+        List<Employee> nextPage = employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc(
+                "Tyrone", "YAO", namesake.getId(), PageRequest.of(0, 2));
+
+        //then -verify the ouput
+        assertThat(firstPage).containsExactly(employee, namesake);
+        assertThat(nextPage).containsExactly(namesake2);
+    }
+
+    @Test
+     void findByNameInTest(){
+        //given - precondition or setup
+        Employee namesake = Employee.builder().firstName("Tyrone").lastName("YAO").email("tyrone.yao@gmail.com").build();
+        Employee employee2 = Employee.builder().firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build();
+        //first and last name must match together
+        Employee crossed = Employee.builder().firstName("Irène").lastName("YAO").email("irene.yao@gmail.com").build();
+        employeeRepository.saveAll(List.of(employee, employee2, crossed, namesake));
+        List<EmployeeName> names = List.of(
+                new EmployeeName("Tyrone", "YAO"), new EmployeeName("Irène", "CISSE"), new EmployeeName("Nobody", "YAO"));
 
         //when - action or the behavior that we are going test
-        Employee empployeeFound = employeeRepository.findByNativeSQLNamed(firstName, lastName);
+        List<Employee> found = employeeRepository.findByNameIn(names, 0L, 10);
+        List<Employee> firstPage = employeeRepository.findByNameIn(names, 0L, 2);
+        List<Employee> nextPage = employeeRepository.findByNameIn(names, employee2.getId(), 2);
 
         //then -verify the ouput
-        assertThat(empployeeFound).isNotNull();
+        assertThat(found).containsExactly(employee, employee2, namesake);
+        assertThat(firstPage).containsExactly(employee, employee2);
+        assertThat(nextPage).containsExactly(namesake);
+        assertThat(employeeRepository.findByNameIn(List.of(), 0L, 10)).isEmpty();
     }
 
 }
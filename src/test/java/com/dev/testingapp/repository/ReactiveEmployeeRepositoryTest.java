@@ -0,0 +1,163 @@
+package com.dev.testingapp.repository;
+
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.model.Employee;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-repository-test;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        //R2dbcConfig only imports R2DBC into a reactive web application
+        "spring.autoconfigure.exclude="})
+@AutoConfigureCache
+class ReactiveEmployeeRepositoryTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    private ReactiveEmployeeRepository employeeRepository;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup(){
+        //given - precondition or setup
+        //the schema Hibernate generates for Employee on H2
+        Flux.just("CREATE SEQUENCE IF NOT EXISTS employees_seq START WITH 1 INCREMENT BY 50",
+                        "CREATE TABLE IF NOT EXISTS employees (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL,"
+                                + " first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL,"
+                                + " version BIGINT NOT NULL, CONSTRAINT uk_employees_email UNIQUE (email))",
+                        "DELETE FROM employees")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        //only a bean of the reactive web application; a new one per test also starts without ids in hand
+        employeeRepository = new ReactiveEmployeeRepository(databaseClient, connectionFactory);
+        employee = Employee.builder()
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("yao@gmail.com")
+                .build();
+    }
+
+    @Test
+    void insertAndFindByIdTest(){
+        //when - action or the behavior that we are going test
+        Employee saved = employeeRepository.insert(employee).block();
+
+        //then -verify the ouput
+        assertThat(saved.getId()).isPositive();
+        assertThat(saved.getVersion()).isZero();
+        StepVerifier.create(employeeRepository.findById(saved.getId()))
+                .expectNext(saved)
+                .verifyComplete();
+    }
+
+    @Test
+    void insertsShareOneBlockOfIdsTest(){
+        //given - precondition or setup
+        Long before = nextSequenceValue();
+
+        //when - action or the behavior that we are going test
+        List<Long> ids = Flux.range(0, 3)
+                .concatMap(i -> employeeRepository.insert(Employee.builder()
+                        .firstName("Tyrone").lastName("YAO").email(i + "@gmail.com").build()))
+                .map(Employee::getId)
+                .collectList()
+                .block();
+
+        //then -verify the ouput
+        assertThat(ids).containsExactly(before + 1, before + 2, before + 3);
+        assertThat(nextSequenceValue()).isEqualTo(before + 2 * Employee.ID_ALLOCATION_SIZE);
+    }
+
+    private Long nextSequenceValue(){
+        return databaseClient.sql("SELECT NEXT VALUE FOR employees_seq").map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    @Test
+    void insertDuplicateEmailViolatesUniqueIndexTest(){
+        //given - precondition or setup
+        employeeRepository.insert(employee).block();
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeRepository.insert(employee))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(DataIntegrityViolationException.class)
+                        .hasMessageContaining("UK_EMPLOYEES_EMAIL"))
+                .verify();
+    }
+
+    @Test
+    void findByIdGreaterThanOrderByIdAscTest(){
+        //given - precondition or setup
+        List<Employee> saved = Flux.range(0, 5)
+                .concatMap(i -> employeeRepository.insert(Employee.builder()
+                        .firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build()))
+                .collectList()
+                .block();
+
+        //when - action or the behavior that we are going test
+        List<Employee> page = employeeRepository.findByIdGreaterThanOrderByIdAsc(saved.get(1).getId(), 2)
+                .collectList()
+                .block();
+
+        //then -verify the ouput
+        assertThat(page).containsExactly(saved.get(2), saved.get(3));
+        StepVerifier.create(employeeRepository.findAllByOrderByIdAsc())
+                .expectNextSequence(saved)
+                .verifyComplete();
+    }
+
+    @Test
+    void patchWithVersionTest(){
+        //given - precondition or setup
+        Employee saved = employeeRepository.insert(employee).block();
+
+        //when - action or the behavior that we are going test
+        Long updated = employeeRepository.patch(saved.getId(), new EmployeePatch("Ty", null, null, 0L)).block();
+        Long stale = employeeRepository.patch(saved.getId(), new EmployeePatch("Tyr", null, null, 0L)).block();
+
+        //then -verify the ouput
+        assertThat(updated).isEqualTo(1L);
+        assertThat(stale).isZero();
+        StepVerifier.create(employeeRepository.findById(saved.getId()))
+                .assertNext(found -> {
+                    assertThat(found.getFirstName()).isEqualTo("Ty");
+                    assertThat(found.getVersion()).isEqualTo(1L);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteByIdInTest(){
+        //given - precondition or setup
+        Employee saved = employeeRepository.insert(employee).block();
+
+        //when - action or the behavior that we are going test
+        Long deleted = employeeRepository.deleteByIdIn(List.of(saved.getId(), saved.getId() + 1)).block();
+
+        //then -verify the ouput
+        assertThat(deleted).isEqualTo(1L);
+        StepVerifier.create(employeeRepository.existsById(saved.getId()))
+                .expectNext(false)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,195 @@
+package com.dev.testingapp.service;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.ImportReport;
+import com.dev.testingapp.dto.ImportRowError;
+import com.dev.testingapp.exception.InvalidImportException;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.impl.EmployeeImportServiceImpl;
+import com.dev.testingapp.service.importer.ImportFormat;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeImportServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EmployeeLookupFilter lookupFilter;
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private EmployeeChangeFeed changeFeed;
+
+    private EmployeeImportServiceImpl importService;
+    private List<List<Employee>> savedChunks;
+
+    @BeforeEach
+    void setup(){
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getBulkImport().setChunkSize(2);
+        properties.getBulkImport().setMaxReportedErrors(2);
+        importService = new EmployeeImportServiceImpl(employeeRepository, employeeService, entityManager,
+                transactionTemplate, lookupFilter, searchIndex, changeFeed, new ObjectMapper(), properties);
+        savedChunks = new ArrayList<>();
+    }
+
+    private void givenTransactionsRunAndRowsAreNew(){
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            savedChunks.add(List.copyOf(invocation.<List<Employee>>getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(true);
+    }
+
+    private static InputStream upload(String content){
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importCsvInChunksTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndRowsAreNew();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of());
+        String csv = "firstName,lastName,email\n"
+                + "Tyrone,YAO,tyrone@gmail.com\n"
+                + "Christian,CISSE,chrisso@yahoo.fr\n"
+                + "\n"
+                + "Daniel,KOUDOU,daniel@yaoo.fr\n";
+
+        //when - action or the behavior that we are going test
+        ImportReport report = importService.importEmployees(upload(csv), ImportFormat.CSV);
+
+        //then -verify the ouput
+        assertThat(report.status()).isEqualTo(ImportReport.Status.COMPLETED);
+        assertThat(report.rowsRead()).isEqualTo(3);
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.failed()).isZero();
+        assertThat(savedChunks).extracting(List::size).containsExactly(2, 1);
+        verify(employeeRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        assertThat(importService.getImport(report.id())).contains(report);
+    }
+
+    @Test
+    void importReportsInvalidDuplicateAndExistingRowsTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndRowsAreNew();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of("daniel@yaoo.fr"));
+        String ndjson = "{\"firstName\":\"Tyrone\",\"lastName\":\"YAO\",\"email\":\"tyrone@gmail.com\"}\n"
+                + "{\"firstName\":\"Tyrone\",\"lastName\":\"YAO\",\"email\":\"tyrone@gmail.com\"}\n"
+                + "{\"firstName\":\"Daniel\",\"lastName\":\"KOUDOU\",\"email\":\"daniel@yaoo.fr\"}\n"
+                + "{\"firstName\":\"\",\"lastName\":\"KOUDOU\",\"email\":\"no-first-name@yaoo.fr\"}\n"
+                + "{not json\n";
+
+        //when - action or the behavior that we are going test
+        ImportReport report = importService.importEmployees(upload(ndjson), ImportFormat.NDJSON);
+
+        //then -verify the ouput
+        assertThat(report.rowsRead()).isEqualTo(5);
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(4);
+        //only the first errors are kept
+        assertThat(report.errors()).extracting(ImportRowError::line).containsExactly(2L, 4L);
+        assertThat(report.errors().get(0).message()).isEqualTo("Duplicate email in the import");
+        assertThat(savedChunks).hasSize(1);
+        assertThat(savedChunks.get(0)).extracting(Employee::getEmail).containsExactly("tyrone@gmail.com");
+    }
+
+    @Test
+    void importSkipsExistenceCheckForEmailsTheFilterRulesOutTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndRowsAreNew();
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(false);
+
+        //when - action or the behavior that we are going test
+        ImportReport report = importService.importEmployees(upload("Tyrone,YAO,tyrone@gmail.com\n"), ImportFormat.CSV);
+
+        //then -verify the ouput
+        assertThat(report.imported()).isEqualTo(1);
+        verify(employeeRepository, never()).findExistingEmails(anyList());
+        verify(lookupFilter).add(any(Employee.class));
+        verify(searchIndex).add(any(Employee.class));
+        verify(changeFeed).created(anyList());
+    }
+
+    @Test
+    void importFallsBackToRowByRowWhenABatchFailsTest(){
+        //given - precondition or setup
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of());
+        willThrow(new DataIntegrityViolationException("uk_employees_email"))
+                .given(transactionTemplate).executeWithoutResult(any());
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("tyrone@gmail.com")) {
+                throw new ResourceNotFoundException("An employee already exist with email: tyrone@gmail.com");
+            }
+            return employee;
+        });
+
+        //when - action or the behavior that we are going test
+        ImportReport report = importService.importEmployees(
+                upload("Tyrone,YAO,tyrone@gmail.com\nDaniel,KOUDOU,daniel@yaoo.fr\n"), ImportFormat.CSV);
+
+        //then -verify the ouput
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.errors().get(0).line()).isEqualTo(1L);
+        verify(employeeService, times(2)).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    void importWithIncompleteCsvHeaderFailsTest(){
+        //when - action or the behavior that we are going test
+        assertThrows(InvalidImportException.class,
+                () -> importService.importEmployees(upload("firstName,email\n"), ImportFormat.CSV));
+
+        //then -verify the ouput
+        assertThat(importService.getImports()).singleElement()
+                .extracting(ImportReport::status).isEqualTo(ImportReport.Status.FAILED);
+    }
+}
@@ -0,0 +1,267 @@
+package com.dev.testingapp.service;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.impl.EmployeeServiceImpl;
+import com.dev.testingapp.service.loader.CoalescingEmployeeLoader;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(
+        classes = {EmployeeServiceImpl.class, EmployeeProperties.class},
+        properties = {
+                "spring.cache.cache-names=employees",
+                "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=10m,recordStats"
+        })
+@EnableCaching
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class EmployeeServiceCacheTest {
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private EntityManager entityManager;
+    @MockBean
+    private EmployeeLookupFilter lookupFilter;
+    @MockBean
+    private EmployeeSearchIndex searchIndex;
+    @MockBean
+    private CoalescingEmployeeLoader employeeLoader;
+    @MockBean
+    private EmployeeResponseCache responseCache;
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup(){
+        cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE).clear();
+        given(lookupFilter.mightContainId(anyLong())).willReturn(true);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("tyrone@gmail.com")
+                .build();
+    }
+
+    @Test
+    void getEmployeeByIdReadsThroughCacheTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        CacheStats before = nativeCache().stats();
+
+        //when - action or the behavior that we are going test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cached = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        CacheStats stats = nativeCache().stats().minus(before);
+        Assertions.assertThat(cached).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+        Assertions.assertThat(stats.hitCount()).isEqualTo(1);
+        Assertions.assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void callersGetCopiesOfTheCachedEmployeeTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        Employee loaded = employeeService.getEmployeeById(1L).get();
+        loaded.setFirstName("Changed by the caller");
+
+        //when - action or the behavior that we are going test
+        Employee first = employeeService.getEmployeeById(1L).get();
+        first.setLastName("Changed by another caller");
+        Employee second = employeeService.getEmployeeById(1L).get();
+
+        //then -verify the ouput
+        Assertions.assertThat(first).isNotSameAs(second);
+        Assertions.assertThat(second.getFirstName()).isEqualTo("Tyrone");
+        Assertions.assertThat(second.getLastName()).isEqualTo("YAO");
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getEmployeeByIdDoesNotCacheMissTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+
+        //when - action or the behavior that we are going test
+        employeeService.getEmployeeById(1L);
+        employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void saveAndUpdateEmployeeRefreshCacheTest(){
+        //given - precondition or setup
+        given(employeeRepository.saveAndFlush(any(Employee.class))).willReturn(employee);
+        Employee updated = Employee.builder().id(1L).firstName("Tichou").lastName("YAO").email("yao@gmail.com").build();
+        given(employeeRepository.save(updated)).willReturn(updated);
+
+        //when - action or the behavior that we are going test
+        employeeService.saveEmployee(employee);
+        Employee afterSave = employeeService.getEmployeeById(1L).get();
+        employeeService.updateEmployee(updated);
+        Employee afterUpdate = employeeService.getEmployeeById(1L).get();
+
+        //then -verify the ouput
+        Assertions.assertThat(afterSave.getFirstName()).isEqualTo("Tyrone");
+        Assertions.assertThat(afterUpdate.getFirstName()).isEqualTo("Tichou");
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void failedUpdateEvictsCacheTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(any(Employee.class))).willThrow(new IllegalStateException("boom"));
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class, () -> {
+            employeeService.updateEmployee(employee);
+        });
+        employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deleteEmployeeLeavesTombstoneTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behavior that we are going test
+        employeeService.deletedEmployee(1L);
+        Optional<Employee> afterDelete = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        //the tombstone answers for the deleted employee
+        Assertions.assertThat(afterDelete).isEmpty();
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void deleteEmployeesLeaveTombstonesTest(){
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findExistingIdsForUpdate(List.of(1L, 2L))).willReturn(List.of(1L));
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behavior that we are going test
+        employeeService.deleteEmployees(List.of(1L, 2L));
+        Optional<Employee> afterDelete = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        //the tombstone answers for the deleted employee
+        Assertions.assertThat(afterDelete).isEmpty();
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void staleLoadDoesNotReplaceTheUpdatedEmployeeTest(){
+        //given - precondition or setup
+        employee.setVersion(1L);
+        Employee updated = Employee.builder().id(1L).firstName("Tichou").lastName("YAO").email("yao@gmail.com").version(2L).build();
+        given(employeeRepository.save(any(Employee.class))).willReturn(updated);
+        //the update commits while the reader still holds the row it loaded
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            employeeService.updateEmployee(updated);
+            return Optional.of(employee);
+        });
+
+        //when - action or the behavior that we are going test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cached = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        Assertions.assertThat(cached).contains(updated);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void staleLoadDoesNotBringBackTheDeletedEmployeeTest(){
+        //given - precondition or setup
+        employee.setVersion(1L);
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            employeeService.deletedEmployee(1L);
+            return Optional.of(employee);
+        });
+
+        //when - action or the behavior that we are going test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cached = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        Assertions.assertThat(cached).isEmpty();
+        Assertions.assertThat(employeeService.getEmployeesByIds(List.of(1L))).isEmpty();
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void patchEmployeeCachesOnlyAfterCommitTest(){
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Tichou", null, null, null);
+        Employee patched = Employee.builder().id(1L).firstName("Tichou").lastName("YAO").email("tyrone@gmail.com").version(2L).build();
+        given(employeeRepository.patch(1L, patch)).willReturn(1);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(patched));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.patchEmployee(1L, patch);
+            Assertions.assertThat(nativeCache().getIfPresent(1L)).isNull();
+
+            //when - action or the behavior that we are going test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then -verify the ouput
+        Assertions.assertThat(nativeCache().getIfPresent(1L)).isEqualTo(patched);
+    }
+
+    private Cache<Object, Object> nativeCache(){
+        return ((CaffeineCache) cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).getNativeCache();
+    }
+}
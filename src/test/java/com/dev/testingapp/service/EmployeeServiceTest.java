@@ -1,32 +1,78 @@
 package com.dev.testingapp.service;
 
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.CursorPage;
+import com.dev.testingapp.dto.EmployeeField;
+import com.dev.testingapp.dto.EmployeeName;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.dto.EmployeeView;
+import com.dev.testingapp.exception.InvalidCursorException;
+import com.dev.testingapp.exception.LookupTooLargeException;
 import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.VersionConflictException;
 import com.dev.testingapp.model.Employee;
 import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
 import com.dev.testingapp.service.impl.EmployeeServiceImpl;
+import com.dev.testingapp.service.loader.CoalescingEmployeeLoader;
+import com.dev.testingapp.service.response.EmployeeResponseCache;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
+
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTest {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private EmployeeProperties properties = new EmployeeProperties();
+    @Mock
+    private EmployeeLookupFilter lookupFilter;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private CoalescingEmployeeLoader employeeLoader;
+    @Mock
+    private EmployeeResponseCache responseCache;
+    @Mock
+    private EmployeeChangeFeed changeFeed;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -45,29 +91,143 @@ class EmployeeServiceTest {
     @Test
     void saveEmployeeTest(){
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        employee.setVersion(3L);
+        Employee unsaved = Employee.builder()
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("tyrone@gmail.com")
+                .build();
+        given(employeeRepository.saveAndFlush(unsaved)).willReturn(employee);
 
         //when - action or the behavior that we are going test
         Employee savedEmployee = employeeService.saveEmployee(employee);
 
         //then -verify the ouput
         Assertions.assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(lookupFilter, times(1)).add(employee);
+        verify(changeFeed, times(1)).created(employee);
     }
 
     @Test
     void saveEmployeeThrowExceptionTest(){
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(any(Employee.class))).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), Employee.EMAIL_UNIQUE_CONSTRAINT)));
 
         //when - action or the behavior that we are going test
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             employeeService.saveEmployee(employee);
         });
 
         //then -verify the ouput
-        verify(employeeRepository, never()).save(any(Employee.class));
+        Assertions.assertThat(exception.getMessage()).isEqualTo("An employee already exist with email: " + employee.getEmail());
+        verify(employeeRepository, times(1)).saveAndFlush(any(Employee.class));
+        verify(changeFeed, never()).created(any(Employee.class));
+    }
+
+    @Test
+    void saveEmployeeOtherConstraintViolationIsRethrownTest(){
+        //given - precondition or setup
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), null));
+        given(employeeRepository.saveAndFlush(any(Employee.class))).willThrow(violation);
+
+        //when - action or the behavior that we are going test
+        DataIntegrityViolationException exception = org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+
+        //then -verify the ouput
+        Assertions.assertThat(exception).isSameAs(violation);
+    }
+
+    @Test
+    void saveEmployeesInBatchesTest(){
+        //given - precondition or setup
+        properties.getBatch().setSize(2);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            employees.add(Employee.builder().firstName("Tyrone").lastName("YAO").email("tyrone" + i + "@gmail.com").build());
+        }
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Collections.emptyList());
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        List<Employee> savedEmployees = employeeService.saveEmployees(employees);
+
+        //then -verify the ouput
+        Assertions.assertThat(savedEmployees).hasSize(5);
+        verify(employeeRepository, times(1)).findExistingEmails(anyCollection());
+        verify(employeeRepository, times(3)).saveAll(anyList());
+        verify(employeeRepository, times(3)).flush();
+        verify(lookupFilter, times(5)).add(any(Employee.class));
+    }
+
+    @Test
+    void saveEmployeesIgnoresSubmittedIdsTest(){
+        //given - precondition or setup
+        employee.setVersion(3L);
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(false);
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        List<Employee> savedEmployees = employeeService.saveEmployees(List.of(employee));
+
+        //then -verify the ouput
+        Assertions.assertThat(savedEmployees).singleElement()
+                .satisfies(saved -> {
+                    Assertions.assertThat(saved.getId()).isNull();
+                    Assertions.assertThat(saved.getVersion()).isNull();
+                    Assertions.assertThat(saved.getEmail()).isEqualTo("tyrone@gmail.com");
+                });
+    }
+
+    @Test
+    void saveEmployeesSkipsLookupForEmailsRuledOutByFilterTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Tichou").lastName("YAO").email("yao@gmail.com").build();
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(false);
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        List<Employee> savedEmployees = employeeService.saveEmployees(List.of(employee, employee2));
+
+        //then -verify the ouput
+        Assertions.assertThat(savedEmployees).hasSize(2);
+        verify(employeeRepository, never()).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    void saveEmployeesExistingEmailThrowExceptionTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Tichou").lastName("YAO").email("yao@gmail.com").build();
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(List.of("yao@gmail.com"));
+
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employee2));
+        });
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void saveEmployeesDuplicateEmailInRequestThrowExceptionTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().firstName("Tichou").lastName("YAO").email(employee.getEmail()).build();
+
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employee2));
+        });
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).findExistingEmails(anyCollection());
+        verify(employeeRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -106,9 +266,151 @@ class EmployeeServiceTest {
         Assertions.assertThat(employeeList.size()).isZero();
     }
 
+    @Test
+    void getEmployeePageHasNextCursorTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().id(2L).firstName("Tichou").lastName("YAO").email("yao@gmail.com").build();
+        Employee employee3 = Employee.builder().id(3L).firstName("Irène").lastName("CISSE").email("irene@gmail.com").build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .willReturn(List.of(employee, employee2, employee3));
+
+        //when - action or the behavior that we are going test
+        CursorPage<Employee> page = employeeService.getEmployeePage(null, 2);
+
+        //then -verify the ouput
+        Assertions.assertThat(page.content()).containsExactly(employee, employee2);
+        Assertions.assertThat(CursorPage.decodeCursor(page.nextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void getEmployeePageLastPageTest(){
+        //given - precondition or setup
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 3)))
+                .willReturn(List.of(employee));
+
+        //when - action or the behavior that we are going test
+        CursorPage<Employee> page = employeeService.getEmployeePage(CursorPage.encodeCursor(1L), 2);
+
+        //then -verify the ouput
+        Assertions.assertThat(page.content()).hasSize(1);
+        Assertions.assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getEmployeeViewPageDropsTheIdWhenNotRequestedTest(){
+        //given - precondition or setup
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.EMAIL);
+        given(employeeRepository.findViewsByIdGreaterThan(0L, 2, fields)).willReturn(List.of(
+                new EmployeeView(4L, null, null, "tyrone@gmail.com", null),
+                new EmployeeView(7L, null, null, "yao@gmail.com", null)));
+
+        //when - action or the behavior that we are going test
+        CursorPage<EmployeeView> page = employeeService.getEmployeeViewPage(null, 1, fields);
+
+        //then -verify the ouput
+        Assertions.assertThat(page.content()).containsExactly(new EmployeeView(null, null, null, "tyrone@gmail.com", null));
+        Assertions.assertThat(CursorPage.decodeCursor(page.nextCursor())).isEqualTo(4L);
+    }
+
+    @Test
+    void getEmployeeViewByIdTest(){
+        //given - precondition or setup
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+        Cache cache = mock(Cache.class);
+        given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(cache);
+        given(cache.get(any(), eq(Employee.class))).willAnswer(invocation -> invocation.getArgument(0).equals(1L) ? employee : null);
+        given(lookupFilter.mightContainId(anyLong())).willReturn(true);
+        given(employeeRepository.findViewById(2L, fields))
+                .willReturn(Optional.of(new EmployeeView(2L, null, null, "yao@gmail.com", null)));
+
+        //when - action or the behavior that we are going test
+        Optional<EmployeeView> cached = employeeService.getEmployeeViewById(1L, fields);
+        Optional<EmployeeView> loaded = employeeService.getEmployeeViewById(2L, fields);
+
+        //then -verify the ouput
+        Assertions.assertThat(cached).contains(new EmployeeView(1L, null, null, "tyrone@gmail.com", null));
+        Assertions.assertThat(loaded).contains(new EmployeeView(2L, null, null, "yao@gmail.com", null));
+        verify(employeeRepository, never()).findViewById(1L, fields);
+    }
+
+    @Test
+    void getEmployeesByNameTest(){
+        //given - precondition or setup
+        Employee namesake = Employee.builder().id(2L).firstName("Tyrone").lastName("YAO").email("yao@gmail.com").build();
+        given(employeeRepository.findByFirstNameAndLastNameAndIdGreaterThanOrderByIdAsc("Tyrone", "YAO", 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(employee, namesake));
+
+        //when - action or the behavior that we are going test
+        CursorPage<Employee> page = employeeService.getEmployeesByName("Tyrone", "YAO", null, 1);
+
+        //then -verify the ouput
+        Assertions.assertThat(page.content()).containsExactly(employee);
+        Assertions.assertThat(CursorPage.decodeCursor(page.nextCursor())).isEqualTo(1L);
+    }
+
+    @Test
+    void getEmployeesByNamesTest(){
+        //given - precondition or setup
+        Employee employee2 = Employee.builder().id(2L).firstName("Irène").lastName("CISSE").email("irene@gmail.com").build();
+        EmployeeName tyrone = new EmployeeName("Tyrone", "YAO");
+        EmployeeName irene = new EmployeeName("Irène", "CISSE");
+        given(employeeRepository.findByNameIn(List.of(irene, tyrone), 0L, 2)).willReturn(List.of(employee, employee2));
+
+        //when - action or the behavior that we are going test
+        CursorPage<Employee> page = employeeService.getEmployeesByNames(List.of(irene, tyrone, irene), null, 1);
+
+        //then -verify the ouput
+        Assertions.assertThat(page.content()).containsExactly(employee);
+        Assertions.assertThat(CursorPage.decodeCursor(page.nextCursor())).isEqualTo(1L);
+    }
+
+    @Test
+    void getEmployeesByNamesRejectsTooManyNamesTest(){
+        //given - precondition or setup
+        properties.getBatch().setMaxLookupNames(2);
+
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(LookupTooLargeException.class, () -> {
+            employeeService.getEmployeesByNames(List.of(new EmployeeName("Tyrone", "YAO"),
+                    new EmployeeName("Irène", "CISSE"), new EmployeeName("Daniel", "KOUDOU")), null, 10);
+        });
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).findByNameIn(anyList(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getEmployeePageInvalidCursorTest(){
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidCursorException.class, () -> {
+            employeeService.getEmployeePage("not-a-cursor", 2);
+        });
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void exportEmployeesClearsPersistenceContextPerChunkTest(){
+        //given - precondition or setup
+        int rows = EmployeeRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        given(employeeRepository.streamAllByOrderByIdAsc()).willReturn(LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> Employee.builder().id(id).firstName("Tyrone").lastName("YAO").email(id + "@gmail.com").build()));
+        List<Employee> exported = new ArrayList<>();
+
+        //when - action or the behavior that we are going test
+        long count = employeeService.exportEmployees(exported::add);
+
+        //then -verify the ouput
+        Assertions.assertThat(count).isEqualTo(rows);
+        Assertions.assertThat(exported).hasSize(rows);
+        verify(entityManager, times(2)).clear();
+    }
+
     @Test
     void findEmployeeByIdTest(){
         //given - precondition or setup
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
         given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
 
         //when - action or the behavior that we are going test
@@ -118,6 +420,72 @@ class EmployeeServiceTest {
         Assertions.assertThat(foundEmployee).isNotNull();
     }
 
+    @Test
+    void findEmployeeByIdRuledOutByFilterSkipsDatabaseTest(){
+        //given - precondition or setup
+        given(lookupFilter.mightContainId(99L)).willReturn(false);
+
+        //when - action or the behavior that we are going test
+        Optional<Employee> foundEmployee = employeeService.getEmployeeById(99L);
+
+        //then -verify the ouput
+        Assertions.assertThat(foundEmployee).isEmpty();
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findEmployeeByIdCoalescedTest(){
+        //given - precondition or setup
+        properties.getCoalescing().setEnabled(true);
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
+        given(employeeLoader.load(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        Optional<Employee> foundEmployee = employeeService.getEmployeeById(1L);
+
+        //then -verify the ouput
+        Assertions.assertThat(foundEmployee).contains(employee);
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getEmployeesByIdsTest(){
+        //given - precondition or setup
+        properties.getBatch().setInListSize(1);
+        Employee employee2 = Employee.builder().id(2L).firstName("Irène").lastName("CISSE").email("irene@gmail.com").build();
+        Employee employee3 = Employee.builder().id(3L).firstName("Daniel").lastName("KOUDOU").email("daniel@yahoo.fr").build();
+        Cache cache = mock(Cache.class);
+        given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(cache);
+        given(cache.get(any(), eq(Employee.class))).willAnswer(invocation -> invocation.getArgument(0).equals(1L) ? employee : null);
+        given(lookupFilter.mightContainId(anyLong())).willAnswer(invocation -> invocation.<Long>getArgument(0) != 99L);
+        given(employeeRepository.findAllById(List.of(3L))).willReturn(List.of(employee3));
+        given(employeeRepository.findAllById(List.of(2L))).willReturn(List.of(employee2));
+        given(employeeRepository.findAllById(List.of(4L))).willReturn(List.of());
+
+        //when - action or the behavior that we are going test
+        List<Employee> found = employeeService.getEmployeesByIds(List.of(3L, 1L, 99L, 2L, 3L, 4L));
+
+        //then -verify the ouput
+        Assertions.assertThat(found).containsExactly(employee3, employee, employee2);
+        verify(employeeRepository, times(3)).findAllById(anyList());
+        verify(cache).put(3L, employee3);
+        verify(cache).put(2L, employee2);
+    }
+
+    @Test
+    void getEmployeesByIdsRejectsTooManyIdsTest(){
+        //given - precondition or setup
+        properties.getBatch().setMaxLookupIds(3);
+
+        //when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(LookupTooLargeException.class, () -> {
+            employeeService.getEmployeesByIds(List.of(1L, 2L, 3L, 4L));
+        });
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).findAllById(anyIterable());
+    }
+
     @Test
     void updateEmployeeTest(){
         //given - precondition or setup
@@ -133,17 +501,197 @@ class EmployeeServiceTest {
         Assertions.assertThat(updatedEmployee.getEmail()).isEqualTo("yao@gmail.com");
     }
 
+    @Test
+    void updateEmployeeVersionConflictTest(){
+        //given - precondition or setup
+        given(employeeRepository.save(employee)).willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        org.junit.jupiter.api.Assertions.assertThrows(VersionConflictException.class, () -> {
+            employeeService.updateEmployee(employee);
+        });
+    }
+
+    @Test
+    void patchEmployeeTest(){
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch(null, null, "yao@gmail.com", 0L);
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
+        given(employeeRepository.patch(1L, patch)).willReturn(1);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        Optional<Employee> patched = employeeService.patchEmployee(1L, patch);
+
+        //then -verify the ouput
+        Assertions.assertThat(patched).contains(employee);
+        verify(lookupFilter, times(1)).addEmail("yao@gmail.com");
+        verify(responseCache, times(1)).evict(1L);
+        verify(changeFeed, times(1)).updated(employee);
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @Test
+    void patchEmployeeStaleVersionTest(){
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Tichou", null, null, 0L);
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
+        given(employeeRepository.patch(1L, patch)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        org.junit.jupiter.api.Assertions.assertThrows(VersionConflictException.class, () -> {
+            employeeService.patchEmployee(1L, patch);
+        });
+    }
+
+    @Test
+    void patchEmployeeWithoutChangesChecksVersionTest(){
+        //given - precondition or setup
+        employee.setVersion(2L);
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behavior that we are going test
+        Optional<Employee> current = employeeService.patchEmployee(1L, new EmployeePatch(null, null, null, 2L));
+
+        //then -verify the ouput
+        Assertions.assertThat(current).contains(employee);
+        org.junit.jupiter.api.Assertions.assertThrows(VersionConflictException.class, () -> {
+            employeeService.patchEmployee(1L, new EmployeePatch(null, null, null, 1L));
+        });
+        verify(employeeRepository, never()).patch(anyLong(), any(EmployeePatch.class));
+    }
+
+    @Test
+    void patchEmployeeNotFoundTest(){
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Tichou", null, null, null);
+        given(lookupFilter.mightContainId(1L)).willReturn(true);
+        given(employeeRepository.patch(1L, patch)).willReturn(0);
+
+        //when - action or the behavior that we are going test
+        Optional<Employee> patched = employeeService.patchEmployee(1L, patch);
+
+        //then -verify the ouput
+        Assertions.assertThat(patched).isEmpty();
+        verify(employeeRepository, never()).existsById(anyLong());
+    }
+
     @Test
     void deleteEmployeeTest(){
         //given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
 
         //when - action or the behavior that we are going test
-        employeeService.deletedEmployee(1L);
+        boolean deleted = employeeService.deletedEmployee(1L);
         Optional<Employee> deletedEmployee = employeeService.getEmployeeById(employeeId);
 
         //then -verify the ouput
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        Assertions.assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(employeeId);
+        verify(employeeRepository, never()).deleteById(anyLong());
+        verify(lookupFilter, times(1)).removeId(employeeId);
+        verify(searchIndex, times(1)).remove(employeeId);
+        verify(responseCache, times(1)).evict(employeeId);
+        verify(changeFeed, times(1)).deleted(employeeId);
+    }
+
+    @Test
+    void deleteEmployeeAtVersionTest(){
+        //given - precondition or setup
+        given(employeeRepository.deleteEmployeeByIdAndVersion(1L, 2L)).willReturn(1);
+        given(employeeRepository.deleteEmployeeByIdAndVersion(2L, 2L)).willReturn(0);
+        given(employeeRepository.existsById(2L)).willReturn(true);
+
+        //when - action or the behavior that we are going test
+        boolean deleted = employeeService.deletedEmployee(1L, 2L);
+
+        //then -verify the ouput
+        Assertions.assertThat(deleted).isTrue();
+        verify(lookupFilter, times(1)).removeId(1L);
+        verify(searchIndex, times(1)).remove(1L);
+        org.junit.jupiter.api.Assertions.assertThrows(VersionConflictException.class, () -> {
+            employeeService.deletedEmployee(2L, 2L);
+        });
+    }
+
+    @Test
+    void deleteMissingEmployeeTest(){
+        //given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(0);
+
+        //when - action or the behavior that we are going test
+        boolean deleted = employeeService.deletedEmployee(1L);
+
+        //then -verify the ouput
+        Assertions.assertThat(deleted).isFalse();
+        verify(lookupFilter, never()).removeId(anyLong());
+        verify(changeFeed, never()).deleted(anyLong());
+    }
+
+    @Test
+    void deleteEmployeesInChunksTest(){
+        //given - precondition or setup
+        properties.getBatch().setInListSize(2);
+        Cache cache = mock(Cache.class);
+        given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(cache);
+        given(employeeRepository.findExistingIdsForUpdate(List.of(1L, 2L))).willReturn(List.of(1L, 2L));
+        given(employeeRepository.findExistingIdsForUpdate(List.of(3L, 4L))).willReturn(List.of(3L));
+        given(employeeRepository.findExistingIdsForUpdate(List.of(5L))).willReturn(List.of());
+
+        //when - action or the behavior that we are going test
+        long deleted = employeeService.deleteEmployees(List.of(1L, 2L, 2L, 3L, 4L, 5L));
+
+        //then -verify the ouput
+        Assertions.assertThat(deleted).isEqualTo(3);
+        verify(employeeRepository, times(1)).deleteEmployeesByIdIn(List.of(1L, 2L));
+        verify(employeeRepository, times(1)).deleteEmployeesByIdIn(List.of(3L));
+        verify(employeeRepository, times(2)).deleteEmployeesByIdIn(anyCollection());
+        verify(cache, times(3)).evict(any());
+        verify(lookupFilter, times(3)).removeId(anyLong());
+        verify(searchIndex, times(3)).remove(anyLong());
+        verify(responseCache, times(3)).evict(anyLong());
+        verify(changeFeed, times(1)).deleted(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void deleteEmployeesEvictsAgainAfterCommitTest(){
+        //given - precondition or setup
+        Cache cache = mock(Cache.class);
+        given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(cache);
+        given(employeeRepository.findExistingIdsForUpdate(List.of(1L))).willReturn(List.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.deleteEmployees(List.of(1L));
+
+            //when - action or the behavior that we are going test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then -verify the ouput
+        verify(cache, times(1)).evict(1L);
+        verify(cache, times(1)).put(eq(1L), argThat(tombstone -> ((Employee) tombstone).getVersion() == Long.MAX_VALUE));
+        verify(responseCache, times(2)).evict(1L);
+        verify(searchIndex, times(2)).remove(1L);
+    }
+
+    @Test
+    void searchEmployeesCapsTheLimitTest(){
+        //given - precondition or setup
+        properties.getSearch().setMaxResults(20);
+        EmployeeSuggestion suggestion = EmployeeSuggestion.of(employee);
+        given(searchIndex.search("ty", 20)).willReturn(List.of(suggestion));
+
+        //when - action or the behavior that we are going test
+        List<EmployeeSuggestion> found = employeeService.searchEmployees("ty", 1000);
+
+        //then -verify the ouput
+        Assertions.assertThat(found).containsExactly(suggestion);
     }
 }
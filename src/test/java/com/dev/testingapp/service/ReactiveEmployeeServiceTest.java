@@ -0,0 +1,181 @@
+package com.dev.testingapp.service;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeePatch;
+import com.dev.testingapp.exception.InvalidCursorException;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.VersionConflictException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.ReactiveEmployeeRepository;
+import com.dev.testingapp.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveEmployeeServiceTest {
+
+    @Mock
+    private ReactiveEmployeeRepository employeeRepository;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+    @Spy
+    private EmployeeProperties properties = new EmployeeProperties();
+    @InjectMocks
+    private ReactiveEmployeeServiceImpl employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup(){
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Tyrone")
+                .lastName("YAO")
+                .email("tyrone@gmail.com")
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    void saveEmployeeTest(){
+
+        //given - precondition or setup
+        given(employeeRepository.insert(employee)).willReturn(Mono.just(employee));
+        given(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.saveEmployee(employee))
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    @Test
+    void saveEmployeeDuplicateEmailTest(){
+
+        //given - precondition or setup
+        given(employeeRepository.insert(employee)).willReturn(Mono.error(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_EMPLOYEES_EMAIL_INDEX_A ON PUBLIC.EMPLOYEES(EMAIL)\"")));
+        given(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.saveEmployee(employee))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void saveEmployeesDuplicateInRequestTest(){
+
+        //given - precondition or setup
+        Employee sameEmail = Employee.builder().firstName("Other").lastName("One").email(employee.getEmail()).build();
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.saveEmployees(List.of(employee, sameEmail)))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        verify(employeeRepository, never()).insert(any(Employee.class));
+    }
+
+    @Test
+    void getEmployeePageTest(){
+
+        //given - precondition or setup
+        properties.getPage().setMaxSize(2);
+        Employee second = Employee.builder().id(2L).firstName("A").lastName("B").email("a@b.dev").build();
+        Employee third = Employee.builder().id(3L).firstName("C").lastName("D").email("c@d.dev").build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, 3)).willReturn(Flux.just(employee, second, third));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.getEmployeePage(null, 10))
+                .assertNext(page -> {
+                    assertThat(page.content()).containsExactly(employee, second);
+                    assertThat(page.nextCursor()).isNotNull();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getEmployeePageInvalidCursorTest(){
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.getEmployeePage("not-a-cursor", 10))
+                .expectError(InvalidCursorException.class)
+                .verify();
+    }
+
+    @Test
+    void patchEmployeeStaleVersionTest(){
+
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Ty", null, null, 3L);
+        given(employeeRepository.patch(1L, patch)).willReturn(Mono.just(0L));
+        given(employeeRepository.existsById(1L)).willReturn(Mono.just(true));
+        given(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.patchEmployee(1L, patch))
+                .expectError(VersionConflictException.class)
+                .verify();
+    }
+
+    @Test
+    void patchEmployeeMissingTest(){
+
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Ty", null, null, null);
+        given(employeeRepository.patch(1L, patch)).willReturn(Mono.just(0L));
+        given(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.patchEmployee(1L, patch))
+                .verifyComplete();
+        verify(employeeRepository, never()).existsById(1L);
+    }
+
+    @Test
+    void deleteEmployeesInChunksTest(){
+
+        //given - precondition or setup
+        properties.getBatch().setInListSize(2);
+        List<Long> ids = LongStream.rangeClosed(1, 5).boxed().toList();
+        given(employeeRepository.deleteByIdIn(anyCollection()))
+                .willAnswer(invocation -> Mono.just((long) invocation.<List<Long>>getArgument(0).size()));
+        given(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        StepVerifier.create(employeeService.deleteEmployees(ids))
+                .expectNext(5L)
+                .verifyComplete();
+        verify(employeeRepository, times(3)).deleteByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,268 @@
+package com.dev.testingapp.service.changes;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeeChange;
+import com.dev.testingapp.exception.ChangeFeedUnavailableException;
+import com.dev.testingapp.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeChangeFeedTest {
+
+    private EmployeeProperties properties;
+    private EmployeeChangeFeed changeFeed;
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        properties.getChanges().setBufferSize(16);
+        properties.getChanges().setMaxSubscribers(2);
+        changeFeed = new EmployeeChangeFeed(properties);
+        changeFeed.start();
+    }
+
+    @AfterEach
+    void tearDown(){
+        changeFeed.stop();
+    }
+
+    private static Employee employee(long id){
+        return Employee.builder().id(id).firstName("Tyrone").lastName("YAO").email(id + "@gmail.com").version(0L).build();
+    }
+
+    //Records what the feed sends; "lost" and "complete" are queued as markers
+    private static class RecordingSink implements EmployeeChangeFeed.Sink {
+        private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(EmployeeChange change) throws IOException {
+            received.add(change);
+        }
+
+        @Override
+        public void lost(long latest) {
+            received.add("lost");
+        }
+
+        @Override
+        public void complete() {
+            received.add("complete");
+        }
+
+        Object next() throws InterruptedException {
+            Object next = received.poll(5, TimeUnit.SECONDS);
+            assertThat(next).as("nothing received").isNotNull();
+            return next;
+        }
+    }
+
+    @Test
+    void subscriberReceivesChangesInCommitOrderTest() throws InterruptedException {
+        //given - precondition or setup
+        RecordingSink sink = new RecordingSink();
+        changeFeed.subscribe(null, sink);
+
+        //when - action or the behavior that we are going test
+        changeFeed.created(employee(1L));
+        changeFeed.updated(employee(1L));
+        changeFeed.deleted(1L);
+
+        //then -verify the ouput
+        EmployeeChange created = (EmployeeChange) sink.next();
+        EmployeeChange updated = (EmployeeChange) sink.next();
+        EmployeeChange deleted = (EmployeeChange) sink.next();
+        assertThat(List.of(created.type(), updated.type(), deleted.type())).containsExactly(
+                EmployeeChange.Type.CREATED, EmployeeChange.Type.UPDATED, EmployeeChange.Type.DELETED);
+        assertThat(updated.sequence()).isEqualTo(created.sequence() + 1);
+        assertThat(deleted.sequence()).isEqualTo(changeFeed.latestSequence());
+        assertThat(created.employee().getEmail()).isEqualTo("1@gmail.com");
+        assertThat(deleted.employee()).isNull();
+    }
+
+    @Test
+    void subscriberResumesAfterASequenceTest() throws InterruptedException {
+        //given - precondition or setup
+        changeFeed.created(List.of(employee(1L), employee(2L), employee(3L)));
+        long afterFirst = changeFeed.latestSequence() - 2;
+        RecordingSink sink = new RecordingSink();
+
+        //when - action or the behavior that we are going test
+        changeFeed.subscribe(afterFirst, sink);
+
+        //then -verify the ouput
+        assertThat(((EmployeeChange) sink.next()).employeeId()).isEqualTo(2L);
+        assertThat(((EmployeeChange) sink.next()).employeeId()).isEqualTo(3L);
+    }
+
+    @Test
+    void changesOfATransactionArePublishedOnCommitOnlyTest(){
+        //given - precondition or setup
+        long before = changeFeed.latestSequence();
+
+        //when - action or the behavior that we are going test
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            changeFeed.created(employee(1L));
+            changeFeed.deleted(List.of(2L, 3L));
+            synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then -verify the ouput
+        assertThat(changeFeed.latestSequence()).isEqualTo(before);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(changeFeed.latestSequence()).isEqualTo(before + 3);
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutBlockingWritersTest() throws InterruptedException {
+        //given - precondition or setup
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(EmployeeChange change) throws IOException {
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                super.send(change);
+            }
+        };
+        changeFeed.subscribe(null, slow);
+        changeFeed.created(employee(0L));
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        for (long id = 1; id <= 100; id++) {
+            changeFeed.updated(employee(id));
+        }
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        //then -verify the ouput
+        assertThat(publishMillis).isLessThan(1000);
+        assertThat(slow.next()).isInstanceOf(EmployeeChange.class);
+        assertThat(slow.next()).isEqualTo("lost");
+        assertThat(slow.next()).isEqualTo("complete");
+        assertThat(changeFeed.subscribers()).isZero();
+    }
+
+    @Test
+    void blockedWriteDropsItsSubscriberAndFreesTheSenderTest() throws InterruptedException {
+        //given - precondition or setup
+        changeFeed.stop();
+        properties.getChanges().setSenderThreads(1);
+        properties.getChanges().setWriteTimeout(Duration.ofMillis(50));
+        changeFeed = new EmployeeChangeFeed(properties);
+        changeFeed.start();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink blocked = new RecordingSink() {
+            @Override
+            public void send(EmployeeChange change) throws IOException {
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                throw new IOException("Broken pipe");
+            }
+        };
+        RecordingSink sink = new RecordingSink();
+        changeFeed.subscribe(null, blocked);
+        changeFeed.created(employee(1L));
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        changeFeed.subscribe(null, sink);
+
+        //when - action or the behavior that we are going test
+        changeFeed.updated(employee(1L));
+
+        //then -verify the ouput
+        assertThat(((EmployeeChange) sink.next()).type()).isEqualTo(EmployeeChange.Type.UPDATED);
+        assertThat(changeFeed.subscribers()).isEqualTo(1);
+        release.countDown();
+        assertThat(blocked.next()).isEqualTo("complete");
+    }
+
+    @Test
+    void positionOfAnEarlierRunIsLostTest() throws InterruptedException {
+        //given - precondition or setup
+        RecordingSink sink = new RecordingSink();
+
+        //when - action or the behavior that we are going test
+        changeFeed.subscribe(42L, sink);
+
+        //then -verify the ouput
+        assertThat(sink.next()).isEqualTo("lost");
+        assertThat(sink.next()).isEqualTo("complete");
+    }
+
+    @Test
+    void failingSubscriberIsRemovedTest() throws InterruptedException {
+        //given - precondition or setup
+        RecordingSink gone = new RecordingSink() {
+            @Override
+            public void send(EmployeeChange change) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        changeFeed.subscribe(null, gone);
+
+        //when - action or the behavior that we are going test
+        changeFeed.created(employee(1L));
+
+        //then -verify the ouput
+        assertThat(gone.next()).isEqualTo("complete");
+        assertThat(changeFeed.subscribers()).isZero();
+    }
+
+    @Test
+    void stopEndsTheStreamsTest() throws InterruptedException {
+        //given - precondition or setup
+        RecordingSink sink = new RecordingSink();
+        changeFeed.subscribe(null, sink);
+
+        //when - action or the behavior that we are going test
+        changeFeed.stop();
+
+        //then -verify the ouput
+        assertThat(sink.next()).isEqualTo("complete");
+        assertThat(changeFeed.isRunning()).isFalse();
+        assertThrows(ChangeFeedUnavailableException.class, () -> changeFeed.subscribe(null, new RecordingSink()));
+    }
+
+    @Test
+    void subscribersBeyondTheLimitAreRefusedTest(){
+        //given - precondition or setup
+        changeFeed.subscribe(null, new RecordingSink());
+        changeFeed.subscribe(null, new RecordingSink());
+
+        //when - action or the behavior that we are going test
+        assertThrows(ChangeFeedUnavailableException.class, () -> changeFeed.subscribe(null, new RecordingSink()));
+
+        //then -verify the ouput
+        assertThat(changeFeed.subscribers()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,83 @@
+package com.dev.testingapp.service.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void noFalseNegativesTest(){
+        //given - precondition or setup
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+
+        //when - action or the behavior that we are going test
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(CountingBloomFilter.hash(id));
+        }
+
+        //then -verify the ouput
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(CountingBloomFilter.hash(id))).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetTest(){
+        //given - precondition or setup
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(CountingBloomFilter.hash("user" + i + "@gmail.com"));
+        }
+
+        //when - action or the behavior that we are going test
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(CountingBloomFilter.hash("other" + i + "@gmail.com"))) {
+                falsePositives++;
+            }
+        }
+
+        //then -verify the ouput
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void removeTest(){
+        //given - precondition or setup
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add(CountingBloomFilter.hash(1L));
+        filter.add(CountingBloomFilter.hash(2L));
+
+        //when - action or the behavior that we are going test
+        filter.remove(CountingBloomFilter.hash(1L));
+
+        //then -verify the ouput
+        assertThat(filter.mightContain(CountingBloomFilter.hash(1L))).isFalse();
+        assertThat(filter.mightContain(CountingBloomFilter.hash(2L))).isTrue();
+    }
+
+    @Test
+    void saturatedCounterIsNeverDecrementedTest(){
+        //given - precondition or setup
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        long hash = CountingBloomFilter.hash(7L);
+        for (int i = 0; i < 20; i++) {
+            filter.add(hash);
+        }
+
+        //when - action or the behavior that we are going test
+        for (int i = 0; i < 20; i++) {
+            filter.remove(hash);
+        }
+
+        //then -verify the ouput
+        assertThat(filter.mightContain(hash)).isTrue();
+    }
+
+    @Test
+    void invalidFalsePositiveRateTest(){
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(1_000, 1.0));
+    }
+}
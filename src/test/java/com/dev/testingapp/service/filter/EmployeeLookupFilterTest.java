@@ -0,0 +1,172 @@
+package com.dev.testingapp.service.filter;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeKey;
+import com.dev.testingapp.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeLookupFilterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeProperties properties;
+    private EmployeeLookupFilter lookupFilter;
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        properties.getLookupFilter().setEnabled(true);
+        properties.getLookupFilter().setExpectedInsertions(1_000);
+        lookupFilter = new EmployeeLookupFilter(employeeRepository, transactionManager, properties);
+    }
+
+    @Test
+    void mightContainEverythingBeforeFirstBuildTest(){
+        assertThat(lookupFilter.isReady()).isFalse();
+        assertThat(lookupFilter.mightContainId(42L)).isTrue();
+        assertThat(lookupFilter.mightContainEmail("nobody@gmail.com")).isTrue();
+    }
+
+    @Test
+    void rebuildFromRepositoryTest(){
+        //given - precondition or setup
+        given(employeeRepository.count()).willReturn(1L);
+        given(employeeRepository.streamKeysBy()).willReturn(Stream.of(key(1L, "Tyrone@Gmail.com")));
+
+        //when - action or the behavior that we are going test
+        lookupFilter.rebuild();
+
+        //then -verify the ouput
+        assertThat(lookupFilter.isReady()).isTrue();
+        assertThat(lookupFilter.getLastRebuildRows()).isEqualTo(1);
+        assertThat(lookupFilter.mightContainId(1L)).isTrue();
+        assertThat(lookupFilter.mightContainId(2L)).isFalse();
+        assertThat(lookupFilter.mightContainEmail("tyrone@gmail.com")).isTrue();
+        assertThat(lookupFilter.mightContainEmail("yao@gmail.com")).isFalse();
+    }
+
+    @Test
+    void rebuildSizesTheFilterBeforeTheScanTransactionTest(){
+        //given - precondition or setup
+        given(employeeRepository.count()).willReturn(1L);
+        given(employeeRepository.streamKeysBy()).willReturn(Stream.of(key(1L, "tyrone@gmail.com")));
+
+        //when - action or the behavior that we are going test
+        lookupFilter.rebuild();
+
+        //then -verify the ouput
+        //the count must not open the snapshot the scan reads from
+        InOrder order = inOrder(employeeRepository, transactionManager);
+        order.verify(employeeRepository).count();
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(employeeRepository).streamKeysBy();
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void addAndRemoveAfterBuildTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamKeysBy()).willReturn(Stream.empty());
+        lookupFilter.rebuild();
+
+        //when - action or the behavior that we are going test
+        lookupFilter.add(Employee.builder().id(5L).firstName("Tyrone").lastName("YAO").email("tyrone@gmail.com").build());
+        boolean addedId = lookupFilter.mightContainId(5L);
+        lookupFilter.removeId(5L);
+
+        //then -verify the ouput
+        assertThat(addedId).isTrue();
+        assertThat(lookupFilter.mightContainId(5L)).isFalse();
+        assertThat(lookupFilter.mightContainEmail("tyrone@gmail.com")).isTrue();
+    }
+
+    @Test
+    void addDuringRebuildReachesTheNewFilterTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamKeysBy()).willReturn(Stream.empty());
+        lookupFilter.rebuild();
+        //a writer commits while the rebuild scans past where its row would be
+        given(employeeRepository.streamKeysBy()).willAnswer(invocation -> Stream.of(key(1L, "tyrone@gmail.com"))
+                .peek(key -> lookupFilter.add(Employee.builder().id(7L).email("irene@gmail.com").build())));
+
+        //when - action or the behavior that we are going test
+        lookupFilter.rebuild();
+
+        //then -verify the ouput
+        assertThat(lookupFilter.mightContainId(1L)).isTrue();
+        assertThat(lookupFilter.mightContainId(7L)).isTrue();
+        assertThat(lookupFilter.mightContainEmail("irene@gmail.com")).isTrue();
+    }
+
+    @Test
+    void addIsMadeAgainWhenARebuildStartsBeforeCommitTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamKeysBy()).willReturn(Stream.empty());
+        lookupFilter.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lookupFilter.add(Employee.builder().id(7L).email("irene@gmail.com").build());
+            //the rebuild's scan does not see the uncommitted row
+            given(employeeRepository.streamKeysBy()).willReturn(Stream.empty());
+            lookupFilter.rebuild();
+            boolean beforeCommit = lookupFilter.mightContainId(7L);
+
+            //when - action or the behavior that we are going test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            //then -verify the ouput
+            assertThat(beforeCommit).isFalse();
+            assertThat(lookupFilter.mightContainId(7L)).isTrue();
+            assertThat(lookupFilter.mightContainEmail("irene@gmail.com")).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void disabledFilterNeverRulesOutTest(){
+        //given - precondition or setup
+        properties.getLookupFilter().setEnabled(false);
+
+        //when - action or the behavior that we are going test
+        lookupFilter.rebuild();
+
+        //then -verify the ouput
+        assertThat(lookupFilter.isReady()).isFalse();
+        assertThat(lookupFilter.mightContainId(1L)).isTrue();
+    }
+
+    private static EmployeeKey key(Long id, String email){
+        return new EmployeeKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
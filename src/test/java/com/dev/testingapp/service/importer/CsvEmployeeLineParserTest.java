@@ -0,0 +1,55 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvEmployeeLineParserTest {
+
+    @Test
+    void positionalColumnsTest(){
+        //given - precondition or setup
+        CsvEmployeeLineParser parser = new CsvEmployeeLineParser();
+
+        //when - action or the behavior that we are going test
+        Employee employee = parser.parse("Tyrone, YAO ,tyrone@gmail.com");
+
+        //then -verify the ouput
+        assertThat(employee.getId()).isNull();
+        assertThat(employee.getFirstName()).isEqualTo("Tyrone");
+        assertThat(employee.getLastName()).isEqualTo("YAO");
+        assertThat(employee.getEmail()).isEqualTo("tyrone@gmail.com");
+    }
+
+    @Test
+    void headerReordersColumnsTest(){
+        //given - precondition or setup
+        CsvEmployeeLineParser parser = CsvEmployeeLineParser.fromHeader("email,department,last_name,firstName");
+
+        //when - action or the behavior that we are going test
+        Employee employee = parser.parse("\"yao, t\"\"y\"\"@gmail.com\",HR,YAO,Tyrone");
+
+        //then -verify the ouput
+        assertThat(employee.getFirstName()).isEqualTo("Tyrone");
+        assertThat(employee.getLastName()).isEqualTo("YAO");
+        assertThat(employee.getEmail()).isEqualTo("yao, t\"y\"@gmail.com");
+    }
+
+    @Test
+    void dataLineIsNotAHeaderTest(){
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        assertThat(CsvEmployeeLineParser.fromHeader("Tyrone,YAO,tyrone@gmail.com")).isNull();
+    }
+
+    @Test
+    void incompleteHeaderOrRowIsRejectedTest(){
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        assertThrows(IllegalArgumentException.class, () -> CsvEmployeeLineParser.fromHeader("firstName,email"));
+        assertThrows(IllegalArgumentException.class, () -> new CsvEmployeeLineParser().parse("Tyrone,YAO"));
+        assertThrows(IllegalArgumentException.class, () -> new CsvEmployeeLineParser().parse("\"Tyrone,YAO,x@y.z"));
+    }
+}
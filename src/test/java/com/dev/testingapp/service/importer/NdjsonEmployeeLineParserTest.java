@@ -0,0 +1,38 @@
+package com.dev.testingapp.service.importer;
+
+import com.dev.testingapp.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NdjsonEmployeeLineParserTest {
+
+    private final NdjsonEmployeeLineParser parser = new NdjsonEmployeeLineParser(new ObjectMapper());
+
+    @Test
+    void clientIdAndVersionAreIgnoredTest(){
+        //when - action or the behavior that we are going test
+        Employee employee = parser.parse(
+                "{\"id\":1,\"version\":0,\"firstName\":\"Tyrone\",\"lastName\":\"YAO\",\"email\":\"tyrone@gmail.com\"}");
+
+        //then -verify the ouput
+        assertThat(employee.getId()).isNull();
+        assertThat(employee.getVersion()).isNull();
+        assertThat(employee.getFirstName()).isEqualTo("Tyrone");
+        assertThat(employee.getLastName()).isEqualTo("YAO");
+        assertThat(employee.getEmail()).isEqualTo("tyrone@gmail.com");
+    }
+
+    @Test
+    void nullOrNonObjectLineIsRejectedTest(){
+        //when - action or the behavior that we are going test
+        //then -verify the ouput
+        assertThat(assertThrows(IllegalArgumentException.class, () -> parser.parse("null")).getMessage())
+                .isEqualTo("Malformed JSON: expected an object, got null");
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("[{\"firstName\":\"Tyrone\"}]"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("\"Tyrone\""));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"firstName\":"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.dev.testingapp.service.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    //fills the limit and completes every request with the given latency, rounds times
+    private static void saturate(AdaptiveConcurrencyLimit limit, long latencyNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.onSuccess(latencyNanos);
+            }
+        }
+    }
+
+    @Test
+    void requestsBeyondTheLimitAreRefusedTest(){
+        //given - precondition or setup
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1, 10, 2.0);
+
+        //when - action or the behavior that we are going test
+        boolean first = limit.tryAcquire();
+        limit.tryAcquire();
+        limit.tryAcquire();
+        boolean fourth = limit.tryAcquire();
+
+        //then -verify the ouput
+        assertThat(first).isTrue();
+        assertThat(fourth).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(3);
+        limit.onIgnore();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHoldsTest(){
+        //given - precondition or setup
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 100, 2.0);
+
+        //when - action or the behavior that we are going test
+        saturate(limit, FAST, 20);
+
+        //then -verify the ouput
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesTest(){
+        //given - precondition or setup
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100, 2.0);
+        saturate(limit, FAST, 10);
+        int before = limit.getLimit();
+
+        //when - action or the behavior that we are going test
+        saturate(limit, SLOW, 5);
+
+        //then -verify the ouput
+        assertThat(limit.getLimit()).isLessThan(before / 2).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void idleSamplesLeaveTheLimitAloneTest(){
+        //given - precondition or setup
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 100, 2.0);
+
+        //when - action or the behavior that we are going test
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.onSuccess(i % 2 == 0 ? FAST : SLOW);
+        }
+
+        //then -verify the ouput
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void failuresBackOffDownToTheMinimumTest(){
+        //given - precondition or setup
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 100, 2.0);
+
+        //when - action or the behavior that we are going test
+        limit.tryAcquire();
+        limit.onFailure();
+        int afterOne = limit.getLimit();
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onFailure();
+        }
+
+        //then -verify the ouput
+        assertThat(afterOne).isEqualTo(18);
+        assertThat(limit.getLimit()).isEqualTo(5);
+        assertThat(limit.getInFlight()).isZero();
+    }
+}
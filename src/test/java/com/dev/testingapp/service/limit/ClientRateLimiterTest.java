@@ -0,0 +1,126 @@
+package com.dev.testingapp.service.limit;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.service.limit.ClientRateLimiter.Budget;
+import com.dev.testingapp.service.limit.ClientRateLimiter.Decision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private AtomicLong clock;
+    private ClientRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup(){
+        EmployeeProperties.RateLimit settings = new EmployeeProperties().getRateLimit();
+        settings.getWrites().setCapacity(5);
+        settings.getWrites().setPerSecond(1);
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        rateLimiter = new ClientRateLimiter(settings, clock::get);
+    }
+
+    @Test
+    void burstUpToTheCapacityIsAllowedTest(){
+        //given - precondition or setup
+        List<Decision> decisions = new ArrayList<>();
+
+        //when - action or the behavior that we are going test
+        for (int i = 0; i < 6; i++) {
+            decisions.add(rateLimiter.tryAcquire("key:a", Budget.WRITES, 1));
+        }
+
+        //then -verify the ouput
+        assertThat(decisions).extracting(Decision::allowed).containsExactly(true, true, true, true, true, false);
+        assertThat(decisions.get(0)).extracting(Decision::limit, Decision::remaining, Decision::resetSeconds)
+                .containsExactly(5, 4L, 1L);
+        assertThat(decisions.get(5)).extracting(Decision::remaining, Decision::resetSeconds,
+                Decision::retryAfterSeconds).containsExactly(0L, 5L, 1L);
+    }
+
+    @Test
+    void tokensAreRefilledOverTimeTest(){
+        //given - precondition or setup
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("key:a", Budget.WRITES, 1);
+        }
+
+        //when - action or the behavior that we are going test
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(2500));
+
+        //then -verify the ouput
+        assertThat(rateLimiter.tryAcquire("key:a", Budget.WRITES, 1).remaining()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("key:a", Budget.WRITES, 1).allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire("key:a", Budget.WRITES, 1).allowed()).isFalse();
+    }
+
+    @Test
+    void clientsAndBudgetsAreKeptApartTest(){
+        //given - precondition or setup
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("key:a", Budget.WRITES, 1);
+        }
+
+        //when - action or the behavior that we are going test
+        Decision otherClient = rateLimiter.tryAcquire("key:b", Budget.WRITES, 1);
+        Decision otherBudget = rateLimiter.tryAcquire("key:a", Budget.READS, 1);
+
+        //then -verify the ouput
+        assertThat(otherClient.allowed()).isTrue();
+        assertThat(otherBudget.allowed()).isTrue();
+        assertThat(otherBudget.limit()).isEqualTo(200);
+        assertThat(rateLimiter.clients()).isEqualTo(2);
+    }
+
+    @Test
+    void costlyRequestTakesSeveralTokensTest(){
+        //given - precondition or setup
+        Decision bulk = rateLimiter.tryAcquire("key:a", Budget.WRITES, 3);
+
+        //when - action or the behavior that we are going test
+        Decision second = rateLimiter.tryAcquire("key:a", Budget.WRITES, 3);
+
+        //then -verify the ouput
+        assertThat(bulk.remaining()).isEqualTo(2);
+        assertThat(second.allowed()).isFalse();
+        assertThat(second.remaining()).isEqualTo(2);
+        assertThat(second.retryAfterSeconds()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("key:a", Budget.WRITES, 100).allowed()).isFalse();
+    }
+
+    @Test
+    void concurrentClientsNeverOverdrawTest() throws Exception {
+        //given - precondition or setup
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicLong allowed = new AtomicLong();
+
+        //when - action or the behavior that we are going test
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (rateLimiter.tryAcquire("key:a", Budget.READS, 1).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        //then -verify the ouput
+        assertThat(allowed.get()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,165 @@
+package com.dev.testingapp.service.loader;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingEmployeeLoaderTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Captor
+    private ArgumentCaptor<Iterable<Long>> queriedIds;
+
+    private CoalescingEmployeeLoader employeeLoader;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setup(){
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getCoalescing().setWindow(Duration.ofSeconds(5));
+        properties.getCoalescing().setMaxBatchSize(3);
+        employeeLoader = new CoalescingEmployeeLoader(employeeRepository, entityManagerFactory, transactionManager,
+                properties);
+        callers = Executors.newFixedThreadPool(5);
+    }
+
+    @AfterEach
+    void tearDown(){
+        callers.shutdownNow();
+    }
+
+    private static List<Employee> employees(Iterable<Long> ids){
+        return StreamSupport.stream(ids.spliterator(), false)
+                .filter(id -> id != 99L)
+                .map(id -> Employee.builder().id(id).firstName("First" + id).lastName("Last" + id).email(id + "@gmail.com").build())
+                .toList();
+    }
+
+    @Test
+    void loneLookupIsQueriedAtOnceTest(){
+        //given - precondition or setup
+        given(employeeRepository.findAllById(anyIterable())).willAnswer(invocation -> employees(invocation.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        Optional<Employee> found = employeeLoader.load(1L);
+        Optional<Employee> missing = employeeLoader.load(99L);
+
+        //then -verify the ouput
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(found).get().extracting(Employee::getId).isEqualTo(1L);
+        assertThat(missing).isEmpty();
+        verify(employeeRepository).findAllById(List.of(1L));
+        verify(employeeRepository).findAllById(List.of(99L));
+    }
+
+    @Test
+    void concurrentLookupsShareOneQueryTest() throws Exception {
+        //given - precondition or setup
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstQuery = new CountDownLatch(1);
+        List<Iterable<Long>> queries = new ArrayList<>();
+        given(employeeRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            boolean first;
+            synchronized (queries) {
+                first = queries.isEmpty();
+                queries.add(ids);
+            }
+            if (first) {
+                firstQueryStarted.countDown();
+                releaseFirstQuery.await();
+            }
+            return employees(ids);
+        });
+
+        //when - action or the behavior that we are going test
+        Future<Optional<Employee>> first = callers.submit(() -> employeeLoader.load(1L));
+        firstQueryStarted.await();
+        //while id 1 is loading: the same id joins that load, three others fill one batch
+        Future<Optional<Employee>> sameId = callers.submit(() -> employeeLoader.load(1L));
+        List<Future<Optional<Employee>>> others = new ArrayList<>();
+        for (long id = 2; id <= 4; id++) {
+            long employeeId = id;
+            others.add(callers.submit(() -> employeeLoader.load(employeeId)));
+        }
+        for (Future<Optional<Employee>> other : others) {
+            assertThat(other.get(2, TimeUnit.SECONDS)).isPresent();
+        }
+        releaseFirstQuery.countDown();
+
+        //then -verify the ouput
+        assertThat(first.get(2, TimeUnit.SECONDS)).isPresent();
+        assertThat(sameId.get(2, TimeUnit.SECONDS)).isEqualTo(first.get());
+        assertThat(sameId.get().get()).isNotSameAs(first.get().get());
+        verify(employeeRepository, times(2)).findAllById(queriedIds.capture());
+        assertThat(queriedIds.getAllValues().get(0)).containsExactly(1L);
+        assertThat(queriedIds.getAllValues().get(1)).containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void failedQueryFailsEveryCallerAndIsNotSharedAfterwardsTest(){
+        //given - precondition or setup
+        given(employeeRepository.findAllById(anyIterable()))
+                .willThrow(new QueryTimeoutException("timeout"))
+                .willAnswer(invocation -> employees(invocation.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        assertThrows(QueryTimeoutException.class, () -> employeeLoader.load(1L));
+        Optional<Employee> retried = employeeLoader.load(1L);
+
+        //then -verify the ouput
+        assertThat(retried).isPresent();
+        verify(employeeRepository, times(2)).findAllById(List.of(1L));
+    }
+
+    @Test
+    void batchIsQueriedInItsOwnReadOnlyTransactionTest(){
+        //given - precondition or setup
+        given(employeeRepository.findAllById(anyIterable())).willAnswer(invocation -> employees(invocation.getArgument(0)));
+
+        //when - action or the behavior that we are going test
+        employeeLoader.load(1L);
+
+        //then -verify the ouput
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+}
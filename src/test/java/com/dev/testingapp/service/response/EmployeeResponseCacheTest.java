@@ -0,0 +1,114 @@
+package com.dev.testingapp.service.response;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeResponseCacheTest {
+
+    private static final String JSON = "application/json";
+    private static final String CBOR = "application/cbor";
+
+    private EmployeeProperties properties;
+    private EmployeeResponseCache responseCache;
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        responseCache = new EmployeeResponseCache(properties);
+    }
+
+    //the body written for this version, or null when none is stored
+    private String get(long id, long version, String contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return responseCache.writeTo(id, version, contentType, out) ? out.toString(StandardCharsets.UTF_8) : null;
+    }
+
+    @Test
+    void writesOnlyBodiesOfTheSameVersionTest() throws IOException {
+        //given - precondition or setup
+        responseCache.put(1L, 0L, JSON, "{\"version\":0}".getBytes(StandardCharsets.UTF_8));
+        responseCache.put(1L, 0L, CBOR, new byte[]{1, 2, 3});
+
+        //when - action or the behavior that we are going test
+        String json = get(1L, 0L, JSON);
+
+        //then -verify the ouput
+        assertThat(json).isEqualTo("{\"version\":0}");
+        assertThat(get(1L, 0L, CBOR)).hasSize(3);
+        assertThat(get(1L, 1L, JSON)).isNull();
+        assertThat(get(2L, 0L, JSON)).isNull();
+    }
+
+    @Test
+    void newVersionReplacesTheOldBodiesTest() throws IOException {
+        //given - precondition or setup
+        responseCache.put(1L, 0L, JSON, "{\"version\":0}".getBytes(StandardCharsets.UTF_8));
+        responseCache.put(1L, 0L, CBOR, new byte[]{1, 2, 3});
+
+        //when - action or the behavior that we are going test
+        responseCache.put(1L, 1L, JSON, "{\"version\":1}".getBytes(StandardCharsets.UTF_8));
+
+        //then -verify the ouput
+        assertThat(get(1L, 1L, JSON)).isEqualTo("{\"version\":1}");
+        assertThat(get(1L, 1L, CBOR)).isNull();
+        assertThat(get(1L, 0L, JSON)).isNull();
+    }
+
+    @Test
+    void evictDropsEveryContentTypeTest() throws IOException {
+        //given - precondition or setup
+        responseCache.put(1L, 0L, JSON, new byte[]{1});
+        responseCache.put(1L, 0L, CBOR, new byte[]{2});
+
+        //when - action or the behavior that we are going test
+        responseCache.evict(1L);
+
+        //then -verify the ouput
+        assertThat(get(1L, 0L, JSON)).isNull();
+        assertThat(get(1L, 0L, CBOR)).isNull();
+    }
+
+    @Test
+    void totalSizeIsBoundedTest(){
+        //given - precondition or setup
+        properties.getResponseCache().setMaxSize(DataSize.ofBytes(1000));
+        responseCache = new EmployeeResponseCache(properties);
+
+        //when - action or the behavior that we are going test
+        for (long id = 0; id < 100; id++) {
+            responseCache.put(id, 0L, JSON, new byte[100]);
+        }
+
+        //then -verify the ouput
+        assertThat(responseCache.estimatedSize()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void offHeapBodiesAreCopiedOutInChunksTest() throws IOException {
+        //given - precondition or setup
+        properties.getResponseCache().setOffHeap(true);
+        responseCache = new EmployeeResponseCache(properties);
+
+        byte[] body = new byte[20_000];
+        new Random(42).nextBytes(body);
+
+        //when - action or the behavior that we are going test
+        responseCache.put(1L, 0L, JSON, body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean written = responseCache.writeTo(1L, 0L, JSON, out);
+
+        //then -verify the ouput
+        //larger than one copy chunk
+        assertThat(written).isTrue();
+        assertThat(out.toByteArray()).isEqualTo(body);
+    }
+}
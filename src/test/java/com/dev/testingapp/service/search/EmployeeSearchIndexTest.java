@@ -0,0 +1,164 @@
+package com.dev.testingapp.service.search;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.EmployeeSuggestion;
+import com.dev.testingapp.exception.SearchUnavailableException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeProperties properties;
+    private EmployeeSearchIndex searchIndex;
+
+    private final EmployeeSuggestion tyrone = new EmployeeSuggestion(1L, "Tyrone", "YAO", "tyrone@gmail.com");
+    private final EmployeeSuggestion irene = new EmployeeSuggestion(2L, "Irène", "CISSE", "irene.cisse@gmail.com");
+    private final EmployeeSuggestion tichou = new EmployeeSuggestion(3L, "Tichou", "YAO", "yao@gmail.com");
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        searchIndex = new EmployeeSearchIndex(employeeRepository, properties);
+    }
+
+    @Test
+    void searchBeforeFirstBuildIsUnavailableTest(){
+        assertThat(searchIndex.isReady()).isFalse();
+        assertThrows(SearchUnavailableException.class, () -> searchIndex.search("ty", 10));
+    }
+
+    @Test
+    void searchNamesAndEmailsIgnoringCaseAndAccentsTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone, irene, tichou));
+
+        //when - action or the behavior that we are going test
+        searchIndex.rebuild();
+
+        //then -verify the ouput
+        assertThat(searchIndex.getLastRebuildRows()).isEqualTo(3);
+        assertThat(searchIndex.search("IRE", 10)).containsExactly(irene);
+        //same term: in id order
+        assertThat(searchIndex.search("yao", 10)).containsExactly(tyrone, tichou);
+        assertThat(searchIndex.search("yao", 1)).containsExactly(tyrone);
+        assertThat(searchIndex.search("tyrone y", 10)).containsExactly(tyrone);
+        assertThat(searchIndex.search("t", 10)).containsExactly(tichou, tyrone);
+        assertThat(searchIndex.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void writesAfterBuildAreSearchableTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone, irene));
+        searchIndex.rebuild();
+
+        //when - action or the behavior that we are going test
+        searchIndex.add(Employee.builder().id(1L).firstName("Ty").lastName("YAO").email("ty@gmail.com").build());
+        searchIndex.add(Employee.builder().id(4L).firstName("Daniel").lastName("KOUDOU").email("daniel@yahoo.fr").build());
+        searchIndex.remove(2L);
+
+        //then -verify the ouput
+        //the old first name no longer matches, the new one does
+        assertThat(searchIndex.search("tyrone", 10)).isEmpty();
+        assertThat(searchIndex.search("ty", 10))
+                .containsExactly(new EmployeeSuggestion(1L, "Ty", "YAO", "ty@gmail.com"));
+        assertThat(searchIndex.search("dan", 10)).extracting(EmployeeSuggestion::id).containsExactly(4L);
+        assertThat(searchIndex.search("irene", 10)).isEmpty();
+        assertThat(searchIndex.getEmployees()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildCompactsStalePostingsTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone)).willReturn(Stream.of(tyrone));
+        searchIndex.rebuild();
+        searchIndex.add(Employee.builder().id(1L).firstName("Ty").lastName("YAO").email("tyrone@gmail.com").build());
+        long postingsBefore = searchIndex.getPostings();
+
+        //when - action or the behavior that we are going test
+        searchIndex.rebuild();
+
+        //then -verify the ouput
+        assertThat(postingsBefore).isEqualTo(6);
+        assertThat(searchIndex.getPostings()).isEqualTo(4);
+        assertThat(searchIndex.getAddedPostings()).isZero();
+    }
+
+    @Test
+    void writesDuringRebuildReachTheNewIndexTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone, tichou));
+        searchIndex.rebuild();
+        //writers commit while the rebuild scans past where their rows would be
+        given(employeeRepository.streamSuggestionsBy()).willAnswer(invocation -> Stream.of(tyrone, tichou)
+                .peek(employee -> {
+                    searchIndex.add(Employee.builder().id(2L).firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build());
+                    searchIndex.remove(3L);
+                }));
+
+        //when - action or the behavior that we are going test
+        searchIndex.rebuild();
+
+        //then -verify the ouput
+        assertThat(searchIndex.search("ire", 10)).containsExactly(irene);
+        assertThat(searchIndex.search("yao", 10)).containsExactly(tyrone);
+    }
+
+    @Test
+    void writesAreMadeAgainWhenARebuildStartsBeforeCommitTest(){
+        //given - precondition or setup
+        given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone, tichou));
+        searchIndex.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchIndex.add(Employee.builder().id(2L).firstName("Irène").lastName("CISSE").email("irene.cisse@gmail.com").build());
+            searchIndex.remove(3L);
+            //the rebuild's scan sees the rows as they were before the commit
+            given(employeeRepository.streamSuggestionsBy()).willReturn(Stream.of(tyrone, tichou));
+            searchIndex.rebuild();
+            List<EmployeeSuggestion> beforeCommit = searchIndex.search("i", 10);
+
+            //when - action or the behavior that we are going test
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            //then -verify the ouput
+            assertThat(beforeCommit).isEmpty();
+            assertThat(searchIndex.search("ire", 10)).containsExactly(irene);
+            assertThat(searchIndex.search("yao", 10)).containsExactly(tyrone);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void disabledSearchIsUnavailableTest(){
+        //given - precondition or setup
+        properties.getSearch().setEnabled(false);
+
+        //when - action or the behavior that we are going test
+        searchIndex.rebuild();
+
+        //then -verify the ouput
+        SearchUnavailableException exception =
+                assertThrows(SearchUnavailableException.class, () -> searchIndex.search("ty", 10));
+        assertThat(exception.getMessage()).isEqualTo("Employee search is disabled");
+    }
+}
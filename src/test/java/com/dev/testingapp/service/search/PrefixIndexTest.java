@@ -0,0 +1,74 @@
+package com.dev.testingapp.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private static List<PrefixIndex.Posting> scan(PrefixIndex index, String prefix, int limit){
+        List<PrefixIndex.Posting> found = new ArrayList<>();
+        index.scan(prefix, posting -> {
+            found.add(posting);
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    @Test
+    void scanMergesBaseAndAddedPostingsInOrderTest(){
+        //given - precondition or setup
+        PrefixIndex index = PrefixIndex.empty().withBase(List.of(
+                new PrefixIndex.Posting("tyrone", 3L),
+                new PrefixIndex.Posting("christian", 1L),
+                new PrefixIndex.Posting("tichou", 2L)));
+        index.add("tyler", 4L);
+        index.add("tyrone", 1L);
+        index.add("yao", 5L);
+
+        //when - action or the behavior that we are going test
+        List<PrefixIndex.Posting> found = scan(index, "t", 10);
+
+        //then -verify the ouput
+        assertThat(found).containsExactly(
+                new PrefixIndex.Posting("tichou", 2L),
+                new PrefixIndex.Posting("tyler", 4L),
+                new PrefixIndex.Posting("tyrone", 1L),
+                new PrefixIndex.Posting("tyrone", 3L));
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    @Test
+    void scanStopsWhenTheVisitorDeclinesTest(){
+        //given - precondition or setup
+        PrefixIndex index = PrefixIndex.empty().withBase(List.of(
+                new PrefixIndex.Posting("daniel", 1L),
+                new PrefixIndex.Posting("dan", 2L),
+                new PrefixIndex.Posting("danielle", 3L)));
+
+        //when - action or the behavior that we are going test
+        List<PrefixIndex.Posting> found = scan(index, "dan", 2);
+
+        //then -verify the ouput
+        assertThat(found).extracting(PrefixIndex.Posting::term).containsExactly("dan", "daniel");
+        assertThat(scan(index, "x", 10)).isEmpty();
+        assertThat(scan(index, "danielle2", 10)).isEmpty();
+    }
+
+    @Test
+    void withBaseKeepsPostingsAddedWhileBuildingTest(){
+        //given - precondition or setup
+        PrefixIndex building = PrefixIndex.empty();
+        building.add("irene", 7L);
+
+        //when - action or the behavior that we are going test
+        PrefixIndex built = building.withBase(List.of(new PrefixIndex.Posting("ines", 6L)));
+        building.add("isaac", 8L);
+
+        //then -verify the ouput
+        assertThat(scan(built, "i", 10)).extracting(PrefixIndex.Posting::id).containsExactly(6L, 7L, 8L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.dev.testingapp.service.seed;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSeederTest {
+
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeProperties properties;
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        properties.getSeed().setChunkSize(4);
+    }
+
+    private EmployeeSeeder seeder(){
+        return new EmployeeSeeder(employeeService, employeeRepository, properties);
+    }
+
+    private void givenSavedEmployeesGetIds(){
+        AtomicLong ids = new AtomicLong(100);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(ids.incrementAndGet()));
+            return employees;
+        });
+    }
+
+    @Test
+    void seedInsertsInChunksAndReturnsTheIdsTest(){
+        //given - precondition or setup
+        givenSavedEmployeesGetIds();
+
+        //when - action or the behavior that we are going test
+        long[] ids = seeder().seed(0, 10);
+
+        //then -verify the ouput
+        assertThat(ids).containsExactly(LongStream.rangeClosed(101, 110).toArray());
+        verify(employeeService, times(3)).saveEmployees(anyList());
+    }
+
+    @Test
+    void startupFillsTheTableUpToTheConfiguredRowsTest(){
+        //given - precondition or setup
+        properties.getSeed().setRows(6);
+        given(employeeRepository.count()).willReturn(4L);
+        givenSavedEmployeesGetIds();
+
+        //when - action or the behavior that we are going test
+        seeder().run(null);
+
+        //then -verify the ouput
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Employee>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(employeeService).saveEmployees(chunk.capture());
+        assertThat(chunk.getValue()).extracting(Employee::getEmail)
+                .containsExactly(EmployeeSeeder.employee(4).getEmail(), EmployeeSeeder.employee(5).getEmail());
+    }
+
+    @Test
+    void startupLeavesAFullTableAloneTest(){
+        //given - precondition or setup
+        properties.getSeed().setRows(6);
+        given(employeeRepository.count()).willReturn(6L);
+
+        //when - action or the behavior that we are going test
+        seeder().run(null);
+
+        //then -verify the ouput
+        verify(employeeService, never()).saveEmployees(anyList());
+    }
+
+    @Test
+    void syntheticEmployeesShareNamesButNotEmailsTest(){
+        //given - precondition or setup
+        List<Employee> employees = LongStream.range(0, 5000).mapToObj(EmployeeSeeder::employee).toList();
+
+        //when - action or the behavior that we are going test
+        long names = employees.stream().map(e -> e.getFirstName() + " " + e.getLastName()).distinct().count();
+        long emails = employees.stream().map(Employee::getEmail).distinct().count();
+
+        //then -verify the ouput
+        assertThat(names).isEqualTo(1024);
+        assertThat(emails).isEqualTo(5000);
+        assertThat(EmployeeSeeder.employee(0).getEmail()).isEqualTo("amelia.adeyemi.0@seed.dev");
+    }
+}
@@ -0,0 +1,260 @@
+package com.dev.testingapp.service.writebehind;
+
+import com.dev.testingapp.config.EmployeeProperties;
+import com.dev.testingapp.dto.PendingEmployee;
+import com.dev.testingapp.exception.InvalidEmployeeException;
+import com.dev.testingapp.exception.ResourceNotFoundException;
+import com.dev.testingapp.exception.WriteBehindQueueFullException;
+import com.dev.testingapp.model.Employee;
+import com.dev.testingapp.repository.EmployeeRepository;
+import com.dev.testingapp.service.EmployeeService;
+import com.dev.testingapp.service.changes.EmployeeChangeFeed;
+import com.dev.testingapp.service.filter.EmployeeLookupFilter;
+import com.dev.testingapp.service.search.EmployeeSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindEmployeeWriterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EmployeeLookupFilter lookupFilter;
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private EmployeeChangeFeed changeFeed;
+
+    private EmployeeProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<Employee>> savedBatches;
+
+    @BeforeEach
+    void setup(){
+        properties = new EmployeeProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setQueueCapacity(3);
+        properties.getWriteBehind().setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        savedBatches = new ArrayList<>();
+    }
+
+    private WriteBehindEmployeeWriter writer(){
+        return new WriteBehindEmployeeWriter(employeeRepository, employeeService, transactionTemplate,
+                lookupFilter, searchIndex, changeFeed, properties, meterRegistry);
+    }
+
+    private void givenTransactionsRunAndEmailsAreNew(){
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        AtomicLong ids = new AtomicLong();
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(ids.incrementAndGet()));
+            savedBatches.add(List.copyOf(employees));
+            return employees;
+        });
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(true);
+    }
+
+    private static Employee employee(String email){
+        return Employee.builder().firstName("Tyrone").lastName("YAO").email(email).build();
+    }
+
+    private double rows(String outcome){
+        return meterRegistry.get("employees.writebehind.rows").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void queuedEmployeesAreWrittenInBatchesTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndEmailsAreNew();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of());
+        WriteBehindEmployeeWriter writer = writer();
+        PendingEmployee first = writer.submit(employee("tyrone@gmail.com")).orElseThrow();
+        writer.submit(employee("chrisso@yahoo.fr"));
+        PendingEmployee last = writer.submit(employee("daniel@yaoo.fr")).orElseThrow();
+        assertThat(meterRegistry.get("employees.writebehind.queue.depth").gauge().value()).isEqualTo(3);
+
+        //when - action or the behavior that we are going test
+        writer.flush();
+
+        //then -verify the ouput
+        assertThat(savedBatches).extracting(List::size).containsExactly(2, 1);
+        assertThat(first.status()).isEqualTo(PendingEmployee.Status.PENDING);
+        assertThat(writer.getStatus(first.id())).get()
+                .extracting(PendingEmployee::status, PendingEmployee::employeeId)
+                .containsExactly(PendingEmployee.Status.CREATED, 1L);
+        assertThat(writer.getStatus(last.id()).orElseThrow().employeeId()).isEqualTo(3L);
+        assertThat(writer.queued()).isZero();
+        assertThat(rows("created")).isEqualTo(3);
+        assertThat(meterRegistry.get("employees.writebehind.flush").timer().count()).isEqualTo(2);
+        verify(searchIndex, times(3)).add(any(Employee.class));
+        verify(changeFeed, times(2)).created(anyList());
+    }
+
+    @Test
+    void fullQueueRejectsTheEmployeeTest(){
+        //given - precondition or setup
+        WriteBehindEmployeeWriter writer = writer();
+        writer.submit(employee("a@gmail.com"));
+        writer.submit(employee("b@gmail.com"));
+        writer.submit(employee("c@gmail.com"));
+
+        //when - action or the behavior that we are going test
+        assertThrows(WriteBehindQueueFullException.class, () -> writer.submit(employee("d@gmail.com")));
+
+        //then -verify the ouput
+        assertThat(writer.queued()).isEqualTo(3);
+        assertThat(rows("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void invalidEmployeeIsRefusedBeforeQueueingTest(){
+        //given - precondition or setup
+        WriteBehindEmployeeWriter writer = writer();
+
+        //when - action or the behavior that we are going test
+        InvalidEmployeeException e = assertThrows(InvalidEmployeeException.class,
+                () -> writer.submit(employee("not-an-email")));
+
+        //then -verify the ouput
+        assertThat(e.getMessage()).isEqualTo("Invalid email: not-an-email");
+        assertThat(writer.queued()).isZero();
+    }
+
+    @Test
+    void disabledWriterLeavesCreationSynchronousTest(){
+        //given - precondition or setup
+        properties.getWriteBehind().setEnabled(false);
+
+        //when - action or the behavior that we are going test
+        WriteBehindEmployeeWriter writer = writer();
+
+        //then -verify the ouput
+        assertThat(writer.submit(employee("tyrone@gmail.com"))).isEmpty();
+        assertThat(writer.queued()).isZero();
+    }
+
+    @Test
+    void duplicateAndExistingEmailsFailTest(){
+        //given - precondition or setup
+        properties.getWriteBehind().setBatchSize(3);
+        givenTransactionsRunAndEmailsAreNew();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of("daniel@yaoo.fr"));
+        WriteBehindEmployeeWriter writer = writer();
+        writer.submit(employee("tyrone@gmail.com"));
+        PendingEmployee duplicate = writer.submit(employee("tyrone@gmail.com")).orElseThrow();
+        PendingEmployee existing = writer.submit(employee("daniel@yaoo.fr")).orElseThrow();
+
+        //when - action or the behavior that we are going test
+        writer.flush();
+
+        //then -verify the ouput
+        assertThat(savedBatches).singleElement().asList().hasSize(1);
+        assertThat(writer.getStatus(duplicate.id()).orElseThrow().status()).isEqualTo(PendingEmployee.Status.FAILED);
+        assertThat(writer.getStatus(existing.id()).orElseThrow().message())
+                .isEqualTo("An employee already exist with email: daniel@yaoo.fr");
+        assertThat(rows("failed")).isEqualTo(2);
+        assertThat(rows("created")).isEqualTo(1);
+    }
+
+    @Test
+    void refusedBatchIsWrittenRowByRowTest(){
+        //given - precondition or setup
+        given(lookupFilter.mightContainEmail(anyString())).willReturn(false);
+        willThrow(new DataIntegrityViolationException("uk_employees_email"))
+                .given(transactionTemplate).executeWithoutResult(any());
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("tyrone@gmail.com")) {
+                throw new ResourceNotFoundException("An employee already exist with email: tyrone@gmail.com");
+            }
+            employee.setId(7L);
+            return employee;
+        });
+        WriteBehindEmployeeWriter writer = writer();
+        PendingEmployee taken = writer.submit(employee("tyrone@gmail.com")).orElseThrow();
+        PendingEmployee free = writer.submit(employee("daniel@yaoo.fr")).orElseThrow();
+
+        //when - action or the behavior that we are going test
+        writer.flush();
+
+        //then -verify the ouput
+        verify(employeeRepository, never()).findExistingEmails(anyList());
+        assertThat(writer.getStatus(taken.id()).orElseThrow().status()).isEqualTo(PendingEmployee.Status.FAILED);
+        assertThat(writer.getStatus(free.id()).orElseThrow().employeeId()).isEqualTo(7L);
+    }
+
+    @Test
+    void failedWriteReportsTheBatchAndKeepsGoingTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndEmailsAreNew();
+        given(employeeRepository.findExistingEmails(anyList()))
+                .willThrow(new IllegalStateException("connection refused"))
+                .willReturn(List.of());
+        properties.getWriteBehind().setBatchSize(1);
+        WriteBehindEmployeeWriter writer = writer();
+        PendingEmployee lost = writer.submit(employee("tyrone@gmail.com")).orElseThrow();
+        PendingEmployee next = writer.submit(employee("daniel@yaoo.fr")).orElseThrow();
+
+        //when - action or the behavior that we are going test
+        writer.flush();
+
+        //then -verify the ouput
+        assertThat(writer.getStatus(lost.id()).orElseThrow().message())
+                .isEqualTo("Could not write the employee: connection refused");
+        assertThat(writer.getStatus(next.id()).orElseThrow().status()).isEqualTo(PendingEmployee.Status.CREATED);
+    }
+
+    @Test
+    void stopDrainsTheQueueAndRefusesNewEmployeesTest(){
+        //given - precondition or setup
+        givenTransactionsRunAndEmailsAreNew();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of());
+        WriteBehindEmployeeWriter writer = writer();
+        writer.submit(employee("tyrone@gmail.com"));
+        writer.submit(employee("daniel@yaoo.fr"));
+
+        //when - action or the behavior that we are going test
+        writer.start();
+        writer.stop();
+
+        //then -verify the ouput
+        assertThat(writer.isRunning()).isFalse();
+        assertThat(writer.queued()).isZero();
+        assertThat(rows("created")).isEqualTo(2);
+        assertThat(writer.submit(employee("chrisso@yahoo.fr"))).isEmpty();
+    }
+}